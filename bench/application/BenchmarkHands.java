@@ -0,0 +1,173 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the hands used by the benchmarks.  Hands are held as int-encoded
+ * cards (see Card.getIndex()) with the cut card last, so each benchmark can
+ * convert them to whichever representation it measures.
+ */
+
+public final class BenchmarkHands {
+
+	/**
+	 * Enum represents the kind of hands to generate.
+	 */
+	public enum Distribution {
+		//hands and cut cards dealt from a shuffled deck
+		RANDOM,
+		//the 4 possible 29 point hands
+		TWENTY_NINE,
+		//double runs, triple runs and double-double runs
+		HEAVY_RUNS;
+	}
+
+	//number of hands generated; a power of 2 so benchmarks can cycle cheaply
+	static final int NUM_HANDS = 1024;
+
+	//private constructor so class can't be instantiated
+	private BenchmarkHands() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Returns NUM_HANDS hands of 5 int-encoded cards, the last being the cut card.
+	 */
+	static int[][] generate(Distribution distribution, long seed) {
+
+		Random random = new Random(seed);
+		int[][] hands = new int[NUM_HANDS][];
+
+		for (int i = 0; i < NUM_HANDS; i++) {
+			switch (distribution) {
+			case RANDOM:
+				hands[i] = randomHand(random);
+				break;
+			case TWENTY_NINE:
+				hands[i] = twentyNineHand(random);
+				break;
+			case HEAVY_RUNS:
+				hands[i] = heavyRunHand(random);
+				break;
+			}
+		}
+
+		return hands;
+	}
+
+	/**
+	 * Returns the 52 cards of a deck, indexed by Card.getIndex().
+	 */
+	static Card[] allCards() {
+
+		Card[] cards = new Card[52];
+
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = Card.fromIndex(i);
+		}
+
+		return cards;
+	}
+
+	/**
+	 * Converts the first 4 int-encoded cards of a hand to a list of cards.
+	 */
+	static List<Card> toList(int[] hand, Card[] cards) {
+
+		List<Card> list = new ArrayList<Card>();
+
+		for (int i = 0; i < 4; i++) {
+			list.add(cards[hand[i]]);
+		}
+
+		return list;
+	}
+
+	//deals 5 cards from a shuffled deck
+	private static int[] randomHand(Random random) {
+
+		List<Integer> deck = new ArrayList<Integer>();
+		for (int card = 0; card < 52; card++) {
+			deck.add(card);
+		}
+		Collections.shuffle(deck, random);
+
+		int[] hand = new int[5];
+		for (int i = 0; i < hand.length; i++) {
+			hand[i] = deck.get(i);
+		}
+
+		return hand;
+	}
+
+	//jack and three fives in hand, with the five of the jack's suit cut
+	private static int[] twentyNineHand(Random random) {
+
+		int nobsSuit = random.nextInt(4);
+		int[] hand = new int[5];
+		int numCards = 0;
+
+		hand[numCards++] = nobsSuit * 13 + Card.Name.JACK.ordinal();
+
+		for (int suit = 0; suit < 4; suit++) {
+			if (suit != nobsSuit) {
+				hand[numCards++] = suit * 13 + Card.Name.FIVE.ordinal();
+			}
+		}
+
+		shuffle(hand, 4, random);
+
+		hand[4] = nobsSuit * 13 + Card.Name.FIVE.ordinal();
+
+		return hand;
+	}
+
+	//picks one of the rank patterns that score multiple runs and deals it
+	//with random suits
+	private static int[] heavyRunHand(Random random) {
+
+		//rank offsets from the lowest card of the run
+		int[][] patterns = {
+				{0, 0, 1, 1, 2},	//double-double run
+				{0, 0, 0, 1, 2},	//triple run
+				{0, 0, 1, 2, 3},	//double run of 4
+				{0, 1, 1, 2, 2}, 	//double-double run
+		};
+
+		int[] pattern = patterns[random.nextInt(patterns.length)];
+		int baseRank = random.nextInt(13 - 3);
+
+		int[] hand = new int[5];
+		int[] suitsUsed = new int[13];
+
+		for (int i = 0; i < hand.length; i++) {
+			int rank = baseRank + pattern[i];
+
+			//use a different suit for each card of the same rank
+			int suit;
+			do {
+				suit = random.nextInt(4);
+			} while ((suitsUsed[rank] & (1 << suit)) != 0);
+			suitsUsed[rank] |= 1 << suit;
+
+			hand[i] = suit * 13 + rank;
+		}
+
+		shuffle(hand, hand.length, random);
+
+		return hand;
+	}
+
+	//shuffles the first length entries of cards
+	private static void shuffle(int[] cards, int length, Random random) {
+		for (int i = length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = cards[i];
+			cards[i] = cards[j];
+			cards[j] = tmp;
+		}
+	}
+}
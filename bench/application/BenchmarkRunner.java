@@ -0,0 +1,35 @@
+package application;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all of the benchmarks with the GC profiler attached, so each result
+ * reports allocation rate (gc.alloc.rate.norm is bytes per operation) along
+ * with throughput.  Any standard JMH command line options can be passed, for
+ * example a regular expression to select benchmarks or -p distribution=RANDOM.
+ */
+
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine);
+		builder.addProfiler(GCProfiler.class);
+
+		//run everything unless benchmarks were selected on the command line
+		if (commandLine.getIncludes().isEmpty()) {
+			builder.include("application\\..*Benchmark");
+		}
+
+		Options options = builder.build();
+
+		new Runner(options).run();
+	}
+}
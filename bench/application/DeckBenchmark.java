@@ -0,0 +1,70 @@
+package application;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks shuffling and dealing from a Deck and an IntDeck, and adding the
+ * dealt cards to a Hand.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeckBenchmark {
+
+	private Deck deck;
+	private final IntDeck intDeck = new IntDeck();
+	private final int[] roundCards = new int[13];
+	private final Hand hand = new Hand();
+	private List<Card> sixCards;
+
+	@Setup
+	public void setup() {
+		deck = new Deck();
+		sixCards = deck.drawCards(6);
+	}
+
+	@Benchmark
+	public void shuffle() {
+		deck.shuffle();
+	}
+
+	//deals a round the way Cribbage.initializeRound() does: two 6 card hands
+	//and the cut card
+	@Benchmark
+	public void dealRound(Blackhole blackhole) {
+		deck.shuffle();
+		blackhole.consume(deck.drawCards(6));
+		blackhole.consume(deck.drawCards(6));
+		blackhole.consume(deck.getCutCard());
+	}
+
+	//deals the same round from an IntDeck into an array
+	@Benchmark
+	public int[] intDeckDealRound() {
+		intDeck.shuffle();
+		intDeck.deal(roundCards, 0, 6);
+		intDeck.deal(roundCards, 6, 6);
+		roundCards[12] = intDeck.draw();
+		return roundCards;
+	}
+
+	@Benchmark
+	public Hand handAddCard() {
+		hand.clear();
+		for (int i = 0; i < sixCards.size(); i++) {
+			hand.addCard(sixCards.get(i));
+		}
+		return hand;
+	}
+}
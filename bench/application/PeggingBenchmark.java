@@ -0,0 +1,163 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.BenchmarkHands.Distribution;
+
+/**
+ * Benchmarks scoring a pegging sequence, played until the next card would 
+ * exceed 31.  Each invocation scores every card of the next sequence in a
+ * cycle of BenchmarkHands.NUM_HANDS sequences.  With HEAVY_RUNS every card
+ * from the third on makes a run.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PeggingBenchmark {
+
+	//TWENTY_NINE doesn't apply to pegging
+	@Param({"RANDOM", "HEAVY_RUNS"})
+	private Distribution distribution;
+
+	//sequences of pegged cards, and each prefix of each sequence
+	private List<List<Card>> sequences;
+	private List<List<List<Card>>> prefixes;
+
+	private final PeggingCards peggingCards = new PeggingCards();
+	private int next = 0;
+
+	@Setup
+	public void setup() {
+
+		Card[] cards = BenchmarkHands.allCards();
+		Random random = new Random(42);
+
+		sequences = new ArrayList<List<Card>>(BenchmarkHands.NUM_HANDS);
+		prefixes = new ArrayList<List<List<Card>>>(BenchmarkHands.NUM_HANDS);
+
+		for (int i = 0; i < BenchmarkHands.NUM_HANDS; i++) {
+
+			List<Card> sequence = distribution == Distribution.HEAVY_RUNS
+					? runSequence(cards, random) : randomSequence(cards, random);
+
+			List<List<Card>> sequencePrefixes = new ArrayList<List<Card>>(sequence.size());
+			for (int j = 0; j < sequence.size(); j++) {
+				sequencePrefixes.add(new ArrayList<Card>(sequence.subList(0, j + 1)));
+			}
+
+			sequences.add(sequence);
+			prefixes.add(sequencePrefixes);
+		}
+	}
+
+	//returns cards from a shuffled deck, up to 31
+	private static List<Card> randomSequence(Card[] cards, Random random) {
+
+		List<Card> candidates = new ArrayList<Card>(Arrays.asList(cards));
+		Collections.shuffle(candidates, random);
+
+		List<Card> sequence = new ArrayList<Card>();
+		int count = 0;
+		for (Card card : candidates) {
+			if (count + card.getPointValue() > PeggingCards.MAX_PEG_VALUE) break;
+			count += card.getPointValue();
+			sequence.add(card);
+		}
+
+		return sequence;
+	}
+
+	//returns a sequence in which every card from the third on makes a run, such
+	//as 5-3-4-6-2-7: 3 consecutive ranks in any order, from ace-2-3 up to
+	//6-7-8 so the run has room to grow, then cards extending the run at either
+	//end, up to 31
+	private static List<Card> runSequence(Card[] cards, Random random) {
+
+		int low = random.nextInt(Card.Name.SIX.ordinal() + 1);
+		int high = low + 2;
+
+		List<Integer> ranks = new ArrayList<Integer>(Arrays.asList(low, low + 1, high));
+		Collections.shuffle(ranks, random);
+
+		List<Card> sequence = new ArrayList<Card>();
+		int count = 0;
+		for (int rank : ranks) {
+			Card card = randomSuit(cards, rank, random);
+			count += card.getPointValue();
+			sequence.add(card);
+		}
+
+		while (true) {
+			Card lower = low > 0 ? randomSuit(cards, low - 1, random) : null;
+			Card higher = high < Card.NAMES_PER_SUIT - 1 ? randomSuit(cards, high + 1, random) : null;
+
+			if (lower != null && count + lower.getPointValue() > PeggingCards.MAX_PEG_VALUE) {
+				lower = null;
+			}
+			if (higher != null && count + higher.getPointValue() > PeggingCards.MAX_PEG_VALUE) {
+				higher = null;
+			}
+
+			Card card;
+			if (lower == null && higher == null) {
+				break;
+			} else if (lower == null || (higher != null && random.nextBoolean())) {
+				card = higher;
+				high++;
+			} else {
+				card = lower;
+				low--;
+			}
+
+			count += card.getPointValue();
+			sequence.add(card);
+		}
+
+		return sequence;
+	}
+
+	//returns the card of a rank in a random suit
+	private static Card randomSuit(Card[] cards, int rank, Random random) {
+		return cards[random.nextInt(4) * Card.NAMES_PER_SUIT + rank];
+	}
+
+	@Benchmark
+	public int pointsFromPegging() {
+		List<List<Card>> sequencePrefixes = prefixes.get(next++ & (BenchmarkHands.NUM_HANDS - 1));
+
+		int points = 0;
+		for (List<Card> prefix : sequencePrefixes) {
+			points += Scoring.pointsFromPegging(prefix);
+		}
+
+		return points;
+	}
+
+	@Benchmark
+	public int peggingCardsAddCard() {
+		List<Card> sequence = sequences.get(next++ & (BenchmarkHands.NUM_HANDS - 1));
+
+		int points = 0;
+		peggingCards.clear();
+		for (int i = 0; i < sequence.size(); i++) {
+			points += peggingCards.addCard(sequence.get(i));
+		}
+
+		return points;
+	}
+}
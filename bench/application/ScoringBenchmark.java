@@ -0,0 +1,100 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.BenchmarkHands.Distribution;
+
+/**
+ * Benchmarks scoring a hand or crib.  Each invocation scores the next hand in
+ * a cycle of BenchmarkHands.NUM_HANDS hands.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScoringBenchmark {
+
+	@Param({"RANDOM", "TWENTY_NINE", "HEAVY_RUNS"})
+	private Distribution distribution;
+
+	private List<List<Card>> hands;
+	private Card[] cutCards;
+	private int[][] intHands;
+	private long[] packedHands;
+	private int next = 0;
+
+	@Setup
+	public void setup() {
+
+		Card[] cards = BenchmarkHands.allCards();
+
+		intHands = BenchmarkHands.generate(distribution, 42);
+		hands = new ArrayList<List<Card>>(intHands.length);
+		cutCards = new Card[intHands.length];
+		packedHands = new long[intHands.length];
+
+		for (int i = 0; i < intHands.length; i++) {
+			int[] hand = intHands[i];
+			hands.add(BenchmarkHands.toList(hand, cards));
+			cutCards[i] = cards[hand[4]];
+			packedHands[i] = Scoring.packHand(hand[0], hand[1], hand[2], hand[3], hand[4]);
+		}
+	}
+
+	//returns the index of the next hand to score
+	private int nextHand() {
+		return next++ & (BenchmarkHands.NUM_HANDS - 1);
+	}
+
+	@Benchmark
+	public int pointsInHand() {
+		int i = nextHand();
+		return Scoring.pointsInHand(hands.get(i), cutCards[i]);
+	}
+
+	@Benchmark
+	public int pointsInCrib() {
+		int i = nextHand();
+		return Scoring.pointsInCrib(hands.get(i), cutCards[i]);
+	}
+
+	@Benchmark
+	public int pointsInHandInt() {
+		int[] hand = intHands[nextHand()];
+		return Scoring.pointsInHand(hand[0], hand[1], hand[2], hand[3], hand[4]);
+	}
+
+	@Benchmark
+	public int pointsInCribInt() {
+		int[] hand = intHands[nextHand()];
+		return Scoring.pointsInCrib(hand[0], hand[1], hand[2], hand[3], hand[4]);
+	}
+
+	@Benchmark
+	public int pointsInHandPacked() {
+		return Scoring.pointsInHand(packedHands[nextHand()]);
+	}
+
+	@Benchmark
+	public int pointsInHandTable() {
+		int[] hand = intHands[nextHand()];
+		return ScoreTable.pointsInHand(hand[0], hand[1], hand[2], hand[3], hand[4]);
+	}
+
+	@Benchmark
+	public int pointsInCribTable() {
+		int[] hand = intHands[nextHand()];
+		return ScoreTable.pointsInCrib(hand[0], hand[1], hand[2], hand[3], hand[4]);
+	}
+}
@@ -0,0 +1,18 @@
+package application;
+
+/**
+ * A search that can be stopped at any time with the best answer found so far.
+ */
+
+public interface AnytimeSearch {
+
+	/**
+	 * Searches until finished or until the deadline passes, whichever comes
+	 * first.  At least one choice is always evaluated, so a decision is 
+	 * returned even if the deadline has already passed.
+	 * 
+	 * @param deadline System.nanoTime() value at which to stop searching;
+	 *        Long.MAX_VALUE to search until finished
+	 */
+	Decision search(long deadline);
+}
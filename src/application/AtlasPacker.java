@@ -0,0 +1,123 @@
+package application;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time tool that packs the 52 card fronts and the card back from the
+ * images folder into the single atlas image and index read by CardAtlas.
+ *
+ * Each image is scaled, keeping its proportions, to fit a cell of the size
+ * cards are shown at.  The fronts are laid out a suit per row in the order of
+ * Card.getIndex(), with the back on the row after.  The index has a line per
+ * image: its file name without ".png", then the x, y, width and height of its
+ * pixels in the atlas.
+ *
+ * Usage: AtlasPacker [cell width] [cell height]
+ */
+
+public final class AtlasPacker {
+
+	//default cell size, the size of the card ImageViews in Main.fxml
+	private static final int DEFAULT_CELL_WIDTH = 80;
+	private static final int DEFAULT_CELL_HEIGHT = 116;
+
+	//private constructor so class can't be instantiated
+	private AtlasPacker() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Packs the card images into an atlas with cells of a given size, writing
+	 * the atlas image and index files.
+	 */
+	static void pack(int cellWidth, int cellHeight) throws IOException {
+
+		int columns = Card.NAMES_PER_SUIT;
+		int rows = IntDeck.SIZE / columns + 1;
+
+		BufferedImage atlas = new BufferedImage(columns * cellWidth, rows * cellHeight,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = atlas.createGraphics();
+
+		try (PrintWriter index = new PrintWriter(CardAtlas.INDEX_FILE_NAME, "UTF-8")) {
+
+			for (int i = 0; i <= IntDeck.SIZE; i++) {
+
+				String fileName = i < IntDeck.SIZE
+						? CardImages.frontFileName(Card.fromIndex(i)) : CardImages.BACK_FILE_NAME;
+
+				BufferedImage image = ImageIO.read(new File(fileName));
+				if (image == null) {
+					throw new IOException("Couldn't read " + fileName);
+				}
+
+				//fit the image within the cell, keeping its proportions
+				double scale = Math.min((double) cellWidth / image.getWidth(),
+						(double) cellHeight / image.getHeight());
+				int width = (int) Math.round(image.getWidth() * scale);
+				int height = (int) Math.round(image.getHeight() * scale);
+
+				int x = (i % columns) * cellWidth;
+				int y = (i / columns) * cellHeight;
+
+				graphics.drawImage(scale(image, width, height), x, y, null);
+
+				String name = new File(fileName).getName().replace(".png", "");
+				index.println(name + " " + x + " " + y + " " + width + " " + height);
+			}
+		} finally {
+			graphics.dispose();
+		}
+
+		ImageIO.write(atlas, "png", new File(CardAtlas.IMAGE_FILE_NAME));
+	}
+
+	/**
+	 * Scales an image down to width by height, halving its size in steps so
+	 * that every source pixel contributes to the result.
+	 */
+	private static BufferedImage scale(BufferedImage image, int width, int height) {
+
+		BufferedImage scaled = image;
+
+		do {
+			int stepWidth = Math.max(width, scaled.getWidth() / 2);
+			int stepHeight = Math.max(height, scaled.getHeight() / 2);
+
+			BufferedImage step = new BufferedImage(stepWidth, stepHeight,
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D graphics = step.createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+					RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(scaled, 0, 0, stepWidth, stepHeight, null);
+			graphics.dispose();
+
+			scaled = step;
+		} while (scaled.getWidth() != width || scaled.getHeight() != height);
+
+		return scaled;
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		int cellWidth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CELL_WIDTH;
+		int cellHeight = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CELL_HEIGHT;
+
+		long startTime = System.nanoTime();
+
+		pack(cellWidth, cellHeight);
+
+		System.out.println("Packed " + (IntDeck.SIZE + 1) + " card images into "
+				+ CardAtlas.IMAGE_FILE_NAME + " and " + CardAtlas.INDEX_FILE_NAME
+				+ " in " + (System.nanoTime() - startTime) / 1000000 + " ms.");
+	}
+}
@@ -1,13 +1,14 @@
 package application;
-import java.io.File;
 import java.util.Comparator;
 
-import javafx.scene.image.Image;
-
 
 /**
  * Class represents a single playing card.
  * 
+ * Cards are immutable, and there is exactly one instance of each of the 52 
+ * cards, obtained from of() or fromIndex(), so cards can be shared by any
+ * number of games and compared with ==.  Whether a card is shown face up
+ * belongs to the Hand holding it, and its images to CardImages.
  */
 
 public final class Card {
@@ -72,66 +73,47 @@ public final class Card {
 		}
 	};
 		
+	//number of card names in each suit; used for the int encoding of a card
+	static final int NAMES_PER_SUIT = 13;
+	
 	private final Suit suit;
 	private final Name name;
-	private final Image frontOfCardImage;
-	private final Image backOfCardImage;
-	private boolean isFaceUp = false;
 	
-	//constructor
-	public Card (Suit suit, Name name) {
+	//the 52 cards, indexed by getIndex(); every Card is one of these
+	private static final Card[] CARDS = createCards();
+	
+	//private constructor so only the canonical cards exist
+	private Card (Suit suit, Name name) {
 		this.suit = suit;
 		this.name = name;
-		
-		this.frontOfCardImage = generateFrontOfCardImage(suit, name);
-		this.backOfCardImage = generateBackOfCardImage();
 	}
 	
-	//generates image to be displayed on the front of card
-	private static Image generateFrontOfCardImage(Suit suit, Name name) {
+	//creates the canonical cards
+	private static Card[] createCards() {
 		
-		String fileName = null;
+		Card[] cards = new Card[Suit.values().length * NAMES_PER_SUIT];
 		
-		switch (name) {
-		case TWO:
-		case THREE:
-		case FOUR:
-		case FIVE:
-		case SIX:
-		case SEVEN:
-		case EIGHT:
-		case NINE:
-		case TEN:
-				fileName = name.toString();
-				break;
-		case ACE:
-		case JACK:
-		case QUEEN:
-		case KING:
-				fileName = name.name();
-				break;
+		for (Suit suit : Suit.values()) {
+			for (Name name : Name.values()) {
+				cards[suit.ordinal() * NAMES_PER_SUIT + name.ordinal()] = new Card(suit, name);
+			}
 		}
 		
-		fileName = ("images/" + fileName + "_of_" + suit.name() + ".png").toLowerCase();
-		File file = new File(fileName);
-		
-	    //System.out.println("File exists (" + fileName + "):  " + file.exists());
-	    Image frontOfCardImage = new Image(file.toURI().toString());
-		
-		return frontOfCardImage;
+		return cards;
 	}
 	
-	//generates image to be displayed on the back of the card
-	private static Image generateBackOfCardImage() {
-		
-		String fileName = ("images/card_back.png");
-		
-		File file = new File(fileName);
-		
-	    //System.out.println("File exists (" + fileName + "):  " + file.exists());
-	    Image image = new Image(file.toURI().toString());
-		
-		return image;
+	/**
+	 * Returns the card with a suit and name.
+	 */
+	public static Card of(Suit suit, Name name) {
+		return CARDS[suit.ordinal() * NAMES_PER_SUIT + name.ordinal()];
+	}
+	
+	/**
+	 * Returns the card with an int encoding from getIndex().
+	 */
+	public static Card fromIndex(int index) {
+		return CARDS[index];
 	}
 	
 	/**
@@ -149,28 +131,20 @@ public final class Card {
 	}
 		
 	/**
-	 * Return point value of card.
+	 * Return the int encoding of this card used by the allocation-free scoring
+	 * methods: suit.ordinal() * 13 + name.ordinal(), a value from 0 to 51.
 	 */
-	int getPointValue() {
-		return name.pointValue();
+	int getIndex() {
+		return suit.ordinal() * NAMES_PER_SUIT + name.ordinal();
 	}
 	
 	/**
-	 * Set to true to display the card face-up and false to display the back of
-	 * the card.
+	 * Return point value of card.
 	 */
-	void setFaceUp(boolean faceUp) {
-		isFaceUp = faceUp;
+	int getPointValue() {
+		return name.pointValue();
 	}
 	
-	/**
-	 * Returns true if the front of card should be displayed and false if the
-	 * back of card should be displayed.
-	 */
-	boolean isFaceUp() {
-		return isFaceUp;
-	}
-
 	/**
 	 * Return a comparator to sort the value of cards giving first priority 
 	 * to the name of the card and second priority to the suit of the card.
@@ -193,18 +167,6 @@ public final class Card {
 		};
 	}
 	
-	/**
-	 * Return the image representing either the front or back of this card,
-	 * depending whether isFaceUp is set to true or false.
-	 */
-	Image getImage () {
-		if (isFaceUp()) {
-			return frontOfCardImage;
-		} else {
-			return backOfCardImage;
-		}
-	}
-	
 	@Override
 	public String toString() {
 		return name.toString() + " " + suit.toString();
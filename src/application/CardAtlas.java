@@ -0,0 +1,146 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+/**
+ * The images of all the cards packed into one image, as generated by
+ * AtlasPacker.  A card is shown by an ImageView holding the atlas image, with
+ * its viewport set to the card's rectangle, so every view shares a single
+ * image that is read and decoded once.
+ */
+
+public final class CardAtlas {
+
+	//files written by AtlasPacker
+	static final String IMAGE_FILE_NAME = "images/cards_atlas.png";
+	static final String INDEX_FILE_NAME = "images/cards_atlas.txt";
+
+	//the atlas shared by everything showing cards, once loaded; null if there
+	//is none
+	private static CardAtlas shared;
+	private static boolean sharedLoaded = false;
+
+	private final Image image;
+
+	//rectangles of the fronts, indexed by Card.getIndex(), and of the back
+	private final Rectangle2D[] fronts = new Rectangle2D[IntDeck.SIZE];
+	private final Rectangle2D back;
+
+	private CardAtlas(Image image, List<String> index) throws IOException {
+
+		this.image = image;
+
+		Rectangle2D backRectangle = null;
+
+		for (String line : index) {
+			String[] fields = line.trim().split("\\s+");
+			if (fields.length != 5) continue;
+
+			Rectangle2D rectangle = new Rectangle2D(Double.parseDouble(fields[1]),
+					Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+					Double.parseDouble(fields[4]));
+
+			String fileName = "images/" + fields[0] + ".png";
+
+			if (fileName.equals(CardImages.BACK_FILE_NAME)) {
+				backRectangle = rectangle;
+			} else {
+				for (int i = 0; i < IntDeck.SIZE; i++) {
+					if (fileName.equals(CardImages.frontFileName(Card.fromIndex(i)))) {
+						fronts[i] = rectangle;
+					}
+				}
+			}
+		}
+
+		back = backRectangle;
+
+		for (int i = 0; i < IntDeck.SIZE; i++) {
+			if (fronts[i] == null) {
+				throw new IOException(INDEX_FILE_NAME + " has no entry for "
+						+ Card.fromIndex(i));
+			}
+		}
+
+		if (back == null) {
+			throw new IOException(INDEX_FILE_NAME + " has no entry for the card back");
+		}
+	}
+
+	/**
+	 * Returns the atlas, loading it the first time it's asked for.  Every
+	 * caller shares the one atlas, so its image is decoded once however many
+	 * tables show it.
+	 *
+	 * @param background whether to decode the atlas image in the background,
+	 *        rather than before returning, if it's loaded now
+	 * @return the atlas, or null if the atlas files are missing or unreadable,
+	 *         in which case the separate card images should be used
+	 */
+	static synchronized CardAtlas load(boolean background) {
+
+		if (!sharedLoaded) {
+			shared = read(background);
+			sharedLoaded = true;
+		}
+
+		return shared;
+	}
+
+	//reads the atlas files
+	private static CardAtlas read(boolean background) {
+
+		File imageFile = new File(IMAGE_FILE_NAME);
+		File indexFile = new File(INDEX_FILE_NAME);
+
+		if (!imageFile.isFile() || !indexFile.isFile()) {
+			return null;
+		}
+
+		try {
+			List<String> index = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+			Image image = new Image(imageFile.toURI().toString(), background);
+
+			return new CardAtlas(image, index);
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Couldn't load card atlas, using separate images: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the image holding every card.
+	 */
+	Image getImage() {
+		return image;
+	}
+
+	/**
+	 * Returns the rectangle of the front of a card within the atlas image.
+	 */
+	Rectangle2D front(Card card) {
+		return fronts[card.getIndex()];
+	}
+
+	/**
+	 * Returns the rectangle of the back of the cards within the atlas image.
+	 */
+	Rectangle2D back() {
+		return back;
+	}
+
+	/**
+	 * Returns the rectangle of the front of a card if faceUp is true and the
+	 * back otherwise.
+	 */
+	Rectangle2D get(Card card, boolean faceUp) {
+		return faceUp ? front(card) : back();
+	}
+}
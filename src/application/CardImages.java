@@ -0,0 +1,155 @@
+package application;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javafx.scene.image.Image;
+
+/**
+ * Cache of the images of the cards, shared by every card and every game.
+ *
+ * Each cache holds the images decoded at one size, such as the size of the
+ * ImageViews showing them, so no memory is spent on pixels that are never
+ * shown; atSize() returns the one cache for each size.  Images are loaded the
+ * first time they are asked for, each at most once, and decode in the
+ * background; an ImageView shows an image as soon as it has loaded.
+ * preload() starts loading them all ahead of time.
+ */
+
+public final class CardImages {
+
+	//position of the back image, after the 52 fronts indexed by Card.getIndex()
+	private static final int BACK = IntDeck.SIZE;
+
+	//file name of the image of the back of the cards
+	static final String BACK_FILE_NAME = "images/card_back.png";
+
+	//the caches, keyed by size
+	private static final ConcurrentHashMap<String, CardImages> CACHES =
+			new ConcurrentHashMap<String, CardImages>();
+
+	//size images are decoded at; 0 for the size of the image file
+	private final double width;
+	private final double height;
+
+	//the images loaded so far, null where not yet loaded
+	private final AtomicReferenceArray<Image> images =
+			new AtomicReferenceArray<Image>(IntDeck.SIZE + 1);
+
+	//private constructor so there's only one cache for each size
+	private CardImages(double width, double height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Returns the cache of images decoded to fit within width by height,
+	 * keeping their proportions.
+	 */
+	static CardImages atSize(double width, double height) {
+		return CACHES.computeIfAbsent(width + "x" + height,
+				key -> new CardImages(width, height));
+	}
+
+	/**
+	 * Returns the cache of images decoded at the size of the image files.
+	 */
+	static CardImages fullSize() {
+		return atSize(0, 0);
+	}
+
+	/**
+	 * Returns the image of the front of a card.
+	 */
+	Image front(Card card) {
+		return image(card.getIndex());
+	}
+
+	/**
+	 * Returns the image of the back of the cards.
+	 */
+	Image back() {
+		return image(BACK);
+	}
+
+	/**
+	 * Returns the front of a card if faceUp is true and the back otherwise.
+	 */
+	Image get(Card card, boolean faceUp) {
+		return faceUp ? front(card) : back();
+	}
+
+	/**
+	 * Starts loading every image that isn't loaded yet, in the background.
+	 *
+	 * @return every image, so their loading can be followed
+	 */
+	List<Image> preload() {
+
+		List<Image> all = new ArrayList<Image>(images.length());
+		for (int i = 0; i < images.length(); i++) {
+			all.add(image(i));
+		}
+
+		return all;
+	}
+
+	//returns the image at position, loading it if needed
+	private Image image(int position) {
+
+		Image image = images.get(position);
+
+		return image != null ? image : load(position);
+	}
+
+	//loads the image at position unless another thread just did
+	private synchronized Image load(int position) {
+
+		Image image = images.get(position);
+
+		if (image == null) {
+			String fileName = position == BACK
+					? BACK_FILE_NAME : frontFileName(Card.fromIndex(position));
+
+			image = new Image(new File(fileName).toURI().toString(), width, height,
+					true, true, true);
+			images.set(position, image);
+		}
+
+		return image;
+	}
+
+	/**
+	 * Returns the file name of the image of the front of a card.
+	 */
+	static String frontFileName(Card card) {
+
+		Card.Name name = card.getName();
+		String fileName = null;
+
+		switch (name) {
+		case TWO:
+		case THREE:
+		case FOUR:
+		case FIVE:
+		case SIX:
+		case SEVEN:
+		case EIGHT:
+		case NINE:
+		case TEN:
+				fileName = name.toString();
+				break;
+		case ACE:
+		case JACK:
+		case QUEEN:
+		case KING:
+				fileName = name.name();
+				break;
+		}
+
+		return ("images/" + fileName + "_of_" + card.getSuit().name() + ".png").toLowerCase();
+	}
+}
@@ -0,0 +1,129 @@
+package application;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Class includes static methods for the expected points in a crib.
+ *
+ * The expected crib is computed from the 2 cards discarded by one player,
+ * averaged over every 2 cards the other player could discard and every cut
+ * card, drawn from the remaining 50 cards.  Scores are the same under any
+ * exchange of suits, so the expectation only depends on the 2 ranks and
+ * whether the cards share a suit.  Each of these is computed the first time 
+ * it is needed and cached.
+ */
+
+public final class CribExpectation {
+
+	//number of keys: low rank, high rank, and whether the cards are suited
+	static final int SIZE = Card.NAMES_PER_SUIT * Card.NAMES_PER_SUIT * 2;
+
+	//expected crib points for each key, or NaN if not yet computed. Races
+	//between threads are harmless since every thread computes the same value.
+	private static final float[] EXPECTED_POINTS = new float[SIZE];
+
+	static {
+		Arrays.fill(EXPECTED_POINTS, Float.NaN);
+	}
+	
+	//precomputed expected crib points for each key, or null if not available
+	private static volatile FloatBuffer precomputed = null;
+
+	//private constructor so class can't be instantiated
+	private CribExpectation() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Returns the expected points in a crib holding 2 int-encoded cards.
+	 */
+	public static float expectedPoints(int card0, int card1) {
+
+		int key = key(card0, card1);
+		
+		FloatBuffer table = precomputed;
+		if (table != null) {
+			return table.get(key);
+		}
+		
+		float points = EXPECTED_POINTS[key];
+
+		if (Float.isNaN(points)) {
+			points = (float) compute(key);
+			EXPECTED_POINTS[key] = points;
+		}
+
+		return points;
+	}
+
+	/**
+	 * Has expectedPoints() read from a precomputed table, such as one mapped by
+	 * TableStore, in place of computing and caching.
+	 */
+	static void setTable(FloatBuffer expectedPoints) {
+		
+		assert expectedPoints.limit() == SIZE : "Expected a table of " + SIZE 
+				+ " entries, but it had " + expectedPoints.limit();
+		
+		precomputed = expectedPoints;
+	}
+	
+	/**
+	 * Returns the key of 2 int-encoded cards, from 0 to SIZE - 1.
+	 */
+	static int key(int card0, int card1) {
+
+		int rank0 = Scoring.rankOf(card0);
+		int rank1 = Scoring.rankOf(card1);
+		int suited = Scoring.suitOf(card0) == Scoring.suitOf(card1) ? 1 : 0;
+
+		int lowRank = Math.min(rank0, rank1);
+		int highRank = Math.max(rank0, rank1);
+
+		return ((lowRank * Card.NAMES_PER_SUIT) + highRank) * 2 + suited;
+	}
+
+	/**
+	 * Computes the expected crib points for a key by scoring the crib for every 
+	 * possible pair of cards from the other player and every cut card.
+	 */
+	static double compute(int key) {
+
+		int suited = key & 1;
+		int lowRank = (key >> 1) / Card.NAMES_PER_SUIT;
+		int highRank = (key >> 1) % Card.NAMES_PER_SUIT;
+
+		//a pair can't be suited; there's no crib to compute for that key
+		if (lowRank == highRank && suited == 1) {
+			return 0;
+		}
+
+		//pick representative cards: the first in suit 0, the second in suit 0 
+		//when suited and suit 1 otherwise
+		int card0 = lowRank;
+		int card1 = (1 - suited) * Card.NAMES_PER_SUIT + highRank;
+
+		long totalPoints = 0;
+		long numCribs = 0;
+
+		for (int other0 = 0; other0 < 52; other0++) {
+			if (other0 == card0 || other0 == card1) continue;
+
+			for (int other1 = other0 + 1; other1 < 52; other1++) {
+				if (other1 == card0 || other1 == card1) continue;
+
+				for (int cut = 0; cut < 52; cut++) {
+					if (cut == card0 || cut == card1 || cut == other0 || cut == other1) {
+						continue;
+					}
+
+					totalPoints += ScoreTable.pointsInCrib(card0, card1, other0, other1, cut);
+					numCribs++;
+				}
+			}
+		}
+
+		return (double) totalPoints / numCribs;
+	}
+}
@@ -0,0 +1,115 @@
+package application;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Batch job that computes the expected crib points for every pair of discards
+ * and writes them to a binary file, so the computer can load the table rather
+ * than compute crib expectations as it plays.
+ *
+ * Each entry is the expected points in the crib given 2 discarded cards, 
+ * averaged over every discard by the other player and every cut card (see
+ * CribExpectation). The dealer gains these points and the non-dealer gives
+ * them away, so one table serves both.
+ *
+ * File format (big-endian): the int MAGIC, the int VERSION, the int number of
+ * entries (CribExpectation.SIZE), then one float per entry in key order.
+ */
+
+public final class CribTableGenerator {
+
+	//default location of the table, relative to the working directory
+	public static final String DEFAULT_FILE = "tables/crib_ev.bin";
+
+	//"CRIB" in ASCII
+	static final int MAGIC = 0x43524942;
+	static final int VERSION = 1;
+
+	//private constructor so class can't be instantiated
+	private CribTableGenerator() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Computes the expected crib points for every key, spreading the keys 
+	 * across cores.
+	 */
+	static float[] generate() {
+
+		double[] expected = IntStream.range(0, CribExpectation.SIZE)
+				.parallel()
+				.mapToDouble(CribExpectation::compute)
+				.toArray();
+
+		float[] table = new float[expected.length];
+		for (int key = 0; key < expected.length; key++) {
+			table[key] = (float) expected[key];
+		}
+
+		return table;
+	}
+
+	/**
+	 * Writes a table to file.
+	 */
+	static void write(float[] table, File file) throws IOException {
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Unable to create directory " + parent);
+		}
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(table.length);
+
+			for (float expected : table) {
+				out.writeFloat(expected);
+			}
+		}
+	}
+
+	/**
+	 * Checks that a table written by write() maps as TableStore maps it and
+	 * holds the given entries.
+	 */
+	static void verify(float[] table, File file) throws IOException {
+
+		FloatBuffer mapped = TableStore.map(file, 4, table.length).asFloatBuffer();
+
+		for (int key = 0; key < table.length; key++) {
+			if (Float.compare(mapped.get(key), table[key]) != 0) {
+				throw new IOException(file + " entry " + key + " is " + mapped.get(key)
+						+ " but " + table[key] + " was written");
+			}
+		}
+	}
+
+	/**
+	 * Generates the table and writes it to the file given as the first 
+	 * argument, or DEFAULT_FILE.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		File file = new File(args.length > 0 ? args[0] : DEFAULT_FILE);
+
+		long startTime = System.nanoTime();
+		float[] table = generate();
+		long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+		write(table, file);
+		verify(table, file);
+
+		System.out.println("Wrote " + table.length + " crib expectations to " + file
+				+ " in " + elapsedMillis + " ms.");
+	}
+}
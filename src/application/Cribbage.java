@@ -1,17 +1,27 @@
 package application;
 
+import java.util.SplittableRandom;
+
+import application.GameListener.ScoreCategory;
 import application.UserInput.InputType;
 
 
 /**
  * Class controls the overall state and logic of the game.
  * 
+ * The game is driven by UserInput and reports what happens to a GameListener,
+ * so it runs the same with the display or headless (HeadlessGame).  The 
+ * computer's discards and pegging come from pluggable strategies.
  */
 
 public final class Cribbage {
 	
-	//number of points to win game
+	//number of points to win game on the display, and to win a full game
 	public final static int WINNING_SCORE = 10;
+	public final static int FULL_GAME_SCORE = 121;
+	
+	//number of points to win this game
+	private final int winningScore;
 	
 	public enum GameState {
 		PLAYER_DISCARD,
@@ -32,10 +42,37 @@ public final class Cribbage {
 	private PeggingCards peggingCards = new PeggingCards();
 	private Card cutCard;
 	
+	//int encoding of the computer's dealt cards, for choosing its discards
+	private final int[] computerCards = new int[DiscardOptimizer.NUM_DEALT];
+	
+	//bit masks, indexed by Card.getIndex(), of the cards the computer and the
+	//player have seen
+	private long computerSeenCards = 0;
+	private long playerSeenCards = 0;
+	
+	//choose the computer's discards and pegging cards
+	private final DiscardStrategy computerDiscard;
+	private final PeggingStrategy computerPegging;
+	
+	//runs the computer's discard and pegging searches in the background;
+	//user input is ignored while the computer is thinking
+	private final DecisionRunner decisionRunner;
+	private boolean computerThinking = false;
+	
+	//the computer's moves if its search fails: the 2 lowest cards, as hands
+	//are kept sorted, and the first playable card
+	private static final int FALLBACK_DISCARD = 0x3;
+	private static final PeggingStrategy FALLBACK_PEGGING = new FirstPlayablePegging();
+	
 	//keep track of who dealt; player deals first; setting this to false as
 	//because this gets flipped in initializeRound()
 	private boolean playersDeal = false;
 	
+	//who deals first in the next game, if chosen by setPlayerDealsFirst()
+	//rather than left to the winner of the last game
+	private boolean firstDealerChosen = false;
+	private boolean playerDealsFirst;
+	
 	//keep track of who pegged the last card
 	private boolean playerPeggedLast = true;
 	
@@ -43,25 +80,73 @@ public final class Cribbage {
 	private int playerScore = 0;
 	private int computerScore = 0;
 	
-	//for updating GUI
-	private MainController controller;
+	//for reporting game events, such as to the GUI
+	private final GameListener listener;
 	
 	/**
-	 * Creates instance of Cribbage class for managing game state.
+	 * Creates instance of Cribbage class for managing game state.  Call 
+	 * start() to deal the first hand.
 	 * 
-	 * @param controller class that controls the display state
+	 * @param listener receives the game events
+	 * @param decisionRunner runs the computer's searches and calls back with
+	 *        its moves on the thread that handles user input
+	 * @param computerDiscard chooses the computer's discards
+	 * @param computerPegging chooses the computer's pegging cards
 	 */
-	Cribbage (MainController controller) {
-		this.controller = controller;
-		controller.setCribbage(this);
+	Cribbage (GameListener listener, DecisionRunner decisionRunner, 
+			DiscardStrategy computerDiscard, PeggingStrategy computerPegging) {
+		this(listener, decisionRunner, computerDiscard, computerPegging, WINNING_SCORE);
+	}
+	
+	/**
+	 * Creates instance of Cribbage class for managing game state, played to
+	 * a given score.  Call start() to deal the first hand.
+	 * 
+	 * @param winningScore points needed to win, such as FULL_GAME_SCORE
+	 */
+	Cribbage (GameListener listener, DecisionRunner decisionRunner, 
+			DiscardStrategy computerDiscard, PeggingStrategy computerPegging,
+			int winningScore) {
+		this.winningScore = winningScore;
+		this.listener = listener;
+		this.decisionRunner = decisionRunner;
+		this.computerDiscard = computerDiscard;
+		this.computerPegging = computerPegging;
+	}
+	
+	/**
+	 * Starts the first game.
+	 */
+	void start() {
 		initializeGame();
 	}
 	
+	/**
+	 * Deals from the next hand on using a new generator, starting from a deck
+	 * in order, so the deals can be reproduced from the generator's seed.
+	 */
+	void setRandom(SplittableRandom random) {
+		deck.setRandom(random);
+	}
+	
+	/**
+	 * Chooses who deals first in the next game started, in place of the
+	 * winner of the last game.
+	 */
+	void setPlayerDealsFirst(boolean playerDealsFirst) {
+		this.playerDealsFirst = playerDealsFirst;
+		firstDealerChosen = true;
+	}
+	
 	//initialize for a new game
 	private void initializeGame() {
 		
-		//winner of last game gets to deal
-		if (playerScore != 0 && computerScore !=0) {
+		//winner of last game gets to deal, unless the first dealer was chosen;
+		//flipped in initializeRound() as below
+		if (firstDealerChosen) {
+			playersDeal = !playerDealsFirst;
+			firstDealerChosen = false;
+		} else if (playerScore != 0 && computerScore !=0) {
 			//not that setting this to opposite of what appears obvious as it 
 			//will be flipped in initializeRound()
 			playersDeal = playerScore > computerScore ? false : true;
@@ -102,18 +187,50 @@ public final class Cribbage {
 		crib.clear();
 		crib.setFaceUpHand(false);
 		
-		//computer discards 2 cards to crib
-		//TODO computer discards at random -- make computer smarter
-		crib.addCard(computerHand.remove(0));
-		crib.addCard(computerHand.remove(0));
+		//alternate who deals; player goes first (playersDeal initially set to false)
+		playersDeal = !playersDeal;
+		
+		//computer discards the 2 cards giving the best expected points in its
+		//hand and the crib
+		computerSeenCards = 0;
+		for (int i = 0; i < computerCards.length; i++) {
+			computerCards[i] = computerHand.peekAtCard(i).getIndex();
+			computerSeenCards |= 1L << computerCards[i];
+		}
+		
+		playerSeenCards = 0;
+		for (Card card: playerHand.getHand()) {
+			playerSeenCards |= 1L << card.getIndex();
+		}
 		
 		setGameState(GameState.PLAYER_DISCARD);
 		
-		//alternate who deals; player goes first (playersDeal initially set to false)
-		playersDeal = !playersDeal;
+		boolean computerDeals = !playersDeal;
+		computerThinking = true;
+		decisionRunner.decide(
+				deadline -> computerDiscard.selectDiscard(computerCards, computerDeals, deadline),
+				() -> new Decision(FALLBACK_DISCARD, 0, false),
+				this::computerDiscarded);
 
 		//update display
-		controller.updateDisplay();
+		listener.displayChanged();
+	}
+	
+	//moves the computer's chosen discards to the crib
+	private void computerDiscarded(Decision decision) {
+		
+		computerThinking = false;
+		reportSearch("discards", decision);
+		int discardMask = decision.getChoice();
+		
+		//remove from the highest index down so lower indexes stay valid
+		for (int i = computerCards.length - 1; i >= 0; i--) {
+			if ((discardMask & (1 << i)) != 0) {
+				crib.addCard(computerHand.remove(i));
+			}
+		}
+		
+		listener.displayChanged();
 	}
 
 	/**
@@ -123,6 +240,11 @@ public final class Cribbage {
 	 */
 	void handleUserInput(UserInput input) {
 		
+		//wait for the computer to finish its move
+		if (computerThinking) {
+			return;
+		}
+		
 		//if player clicks on a panel that doesn't currently hold a card, 
 		//nothing to do - return silently
 		if (input.getType() == InputType.CARD_CLICK 
@@ -136,7 +258,7 @@ public final class Cribbage {
 			case PLAYER_DISCARD:
 			
 				if (input.getType() != InputType.CARD_CLICK) {
-					controller.appendStatusText("Invalid input. Select card to discard.");
+					listener.statusText("Invalid input. Select card to discard.");
 					break;
 				}
 				
@@ -148,9 +270,7 @@ public final class Cribbage {
 				//stay in discard state until player has 4 cards
 				if (playerHand.size() > 4) {
 					Card card = playerHand.remove(cardIndex);
-					//set card to display face down
-					card.setFaceUp(false);
-					//add card to crib
+					//add card to crib, which is displayed face down
 					crib.addCard(card);
 				}
 			
@@ -160,30 +280,28 @@ public final class Cribbage {
 					
 					//set the cut card
 					cutCard = deck.getCutCard();
-					cutCard.setFaceUp(true);
+					computerSeenCards |= 1L << cutCard.getIndex();
+					playerSeenCards |= 1L << cutCard.getIndex();
 				
 					//check for and score nobs
 					if (cutCard.getName() == Card.Name.JACK) {
 						if (playersDeal) {
-							boolean win = addPlayerPoints(2);
-							controller.appendStatusText("Player scores 2 for jack cut card.");
+							boolean win = addPlayerPoints(2, ScoreCategory.JACK_CUT);
+							listener.statusText("Player scores 2 for jack cut card.");
 							if (win) { playerWon();	break; }
 						} else {
-							boolean win = addComputerPoints(2);
-							controller.appendStatusText("Computer scores 2 for jack cut card.");
+							boolean win = addComputerPoints(2, ScoreCategory.JACK_CUT);
+							listener.statusText("Computer scores 2 for jack cut card.");
 							if (win) { computerWon(); break; }
 						}
 					}
 					
 					//computer plays if computer's turn
 					if (playersDeal) {
-						controller.appendStatusText("Player's deal - computer goes first.");
-						if (computerPlay()) {
-							//if computer has won, then break out early
-							break;
-						}
+						listener.statusText("Player's deal - computer goes first.");
+						computerPlay();
 					} else {
-						controller.appendStatusText("Computer's deal - player goes first.");
+						listener.statusText("Computer's deal - player goes first.");
 					}
 				}
 				
@@ -192,7 +310,7 @@ public final class Cribbage {
 			case PEGGING:
 			
 				if (input.getType() != InputType.CARD_CLICK) {
-					controller.appendStatusText("Invalid input. Select a card to "
+					listener.statusText("Invalid input. Select a card to "
 							+ "continue pegging");
 					break;
 				}
@@ -202,29 +320,24 @@ public final class Cribbage {
 				//check to see if playing card would result in peg cards value
 				//exceeding 31 points
 				if (!peggingCards.canAdd(card)) {
-					controller.appendStatusText("Can't play card! Total points would exceed 31.");
+					listener.statusText("Can't play card! Total points would exceed 31.");
 					break;
 				}
 				
 				playerPeggedLast = true;
+				computerSeenCards |= 1L << card.getIndex();
 				
 				int playerPoints = peggingCards.addCard(playerHand.pegCard(input.getCardIndex()));
 				if (playerPoints > 0) {			
-					boolean win = addPlayerPoints(playerPoints);
-					controller.appendStatusText("Player pegged " + playerPoints + " points.");
+					boolean win = addPlayerPoints(playerPoints, ScoreCategory.PEGGING);
+					listener.statusText("Player pegged " + playerPoints + " points.");
 					if (win) { playerWon(); break; }
 				}
 					
 				//computer plays at least once (if able), and continues playing
-				//while player can't play and computer can play
-				if (computerPlay()) {
-					//if comptuer won, then break out
-					break;
-				}
-					
-				//check to see if this is the last pegging card, and if so allocate 
-				//points and change state to PEGGING_WAITING_FOR_NEXT_ROUND
-				handleLastPeggingCard();
+				//while player can't play and computer can play, then checks for
+				//the last pegging card
+				computerPlay();
 				
 				break;
 			
@@ -232,7 +345,7 @@ public final class Cribbage {
 			
 				//don't take any action until next round button is pushed
 				if (input.getType() != InputType.BUTTON_ACTION) {
-					controller.appendStatusText("Invalid selection. Click on Next Round button to continue game.");
+					listener.statusText("Invalid selection. Click on Next Round button to continue game.");
 					break;
 				} 
 				
@@ -258,7 +371,7 @@ public final class Cribbage {
 					break;
 				} 
 				
-				controller.appendStatusText("Commencing next pegging round.");
+				listener.statusText("Commencing next pegging round.");
 				
 				setGameState(GameState.PEGGING);
 				
@@ -267,11 +380,10 @@ public final class Cribbage {
 						(playerHand.size() == 0)) {
 					
 					//computer plays at least once (if able), and continues playing
-					//while player can't play and computer can play
-					if (computerPlay()) {
-						//if computer won, then break out
-						break;
-					}
+					//while player can't play and computer can play, then checks
+					//for the last pegging card
+					computerPlay();
+					break;
 				}
 				
 				//check to see if this is the last pegging card, and if so allocate 
@@ -284,7 +396,7 @@ public final class Cribbage {
 				
 				//don't take any action until next round button is pushed
 				if (input.getType() != InputType.BUTTON_ACTION) {
-					controller.appendStatusText("Invalid selection. Click on Next Round button to continue game.");
+					listener.statusText("Invalid selection. Click on Next Round button to continue game.");
 					break;
 				} 
 				
@@ -297,7 +409,7 @@ public final class Cribbage {
 				
 				//don't take any action until next round button is pushed
 				if (input.getType() != InputType.BUTTON_ACTION) {
-					controller.appendStatusText("Invalid selection. Click on Next Round button to start a new game.");
+					listener.statusText("Invalid selection. Click on Next Round button to start a new game.");
 					break;
 				} 
 				
@@ -311,7 +423,7 @@ public final class Cribbage {
 		}
 		
 		//update the display
-		controller.updateDisplay();
+		listener.displayChanged();
 		
 		//System.out.println("GameState = " + getGameState().name());
 	}
@@ -331,15 +443,15 @@ public final class Cribbage {
 			//would have been allocated when card was added to stack
 			if (peggingCards.getPointValue() != 31) {
 				if (playerPeggedLast) {
-					boolean win = addPlayerPoints(1); 
-					controller.appendStatusText("Player pegged 1 point for last card.");
+					boolean win = addPlayerPoints(1, ScoreCategory.LAST_CARD); 
+					listener.statusText("Player pegged 1 point for last card.");
 					if (win) {
 						playerWon();
 						return true;
 					}
 				} else {
-					boolean win = addComputerPoints(1);
-					controller.appendStatusText("Computer pegged 1 point for last card.");
+					boolean win = addComputerPoints(1, ScoreCategory.LAST_CARD);
+					listener.statusText("Computer pegged 1 point for last card.");
 					if (win) {
 						computerWon();
 						return true;
@@ -347,7 +459,7 @@ public final class Cribbage {
 				}
 			}
 			
-			controller.appendStatusText("Pegging round completed.  Select "
+			listener.statusText("Pegging round completed.  Select "
 					+ "next round button to continue.");	
 			
 			setGameState(GameState.PEGGING_WAITING_FOR_NEXT_ROUND);
@@ -360,20 +472,24 @@ public final class Cribbage {
 	/**
 	 * Adds points to player total. 
 	 * @param points to add
+	 * @param category how the points were scored
 	 * @return true if player wins and false otherwise
 	 */
-	private boolean addPlayerPoints(int points) {
+	private boolean addPlayerPoints(int points, ScoreCategory category) {
 		playerScore += points;
+		listener.pointsScored(true, category, points);
 		return checkForWin();
 	}
 	
 	/**
 	 * Adds points to computer total.
 	 * @param points to add
+	 * @param category how the points were scored
 	 * @return true if player wins and false otherwise
 	 */
-	private boolean addComputerPoints(int points) {
+	private boolean addComputerPoints(int points, ScoreCategory category) {
 		computerScore += points;
+		listener.pointsScored(false, category, points);
 		return checkForWin();
 	}
 	
@@ -382,11 +498,11 @@ public final class Cribbage {
 	 * @return true if either player or computer won, false otherwise
 	 */
 	private boolean checkForWin() {
-		if (computerScore >= WINNING_SCORE) {
-			//controller.appendStatusText("COMPUTER WINS!");
+		if (computerScore >= winningScore) {
+			//listener.statusText("COMPUTER WINS!");
 			return true;
-		} else if (playerScore >= WINNING_SCORE) {
-			//controller.appendStatusText("PLAYER WINS!");
+		} else if (playerScore >= winningScore) {
+			//listener.statusText("PLAYER WINS!");
 			return true;
 		} else {
 			return false;
@@ -395,37 +511,65 @@ public final class Cribbage {
 	
 	/**
 	 * computer pegs once (if able), and continues to peg while player can't peg
-	 * and computer can peg. 
-	 * @return  true if computer wins, and false otherwise
+	 * and computer can peg, then checks for the last pegging card.  The card is
+	 * chosen by the computer's pegging strategy in the background and played
+	 * by computerPegged().
 	 */
-	//TODO: computer selects first playable card in hand - make computer smarter
-	private boolean computerPlay() {
+	private void computerPlay() {
 		
-		if (!computerCanPeg()) return false;
+		if (!computerCanPeg()) {
+			handleLastPeggingCard();
+			return;
+		}
 		
-		do { 
-			//computer plays first card in its hand that is playable
-			for (int i=0; i < computerHand.size(); i++) {
-				Card card = computerHand.peekAtCard(i);
-				
-				if (card.getPointValue() + peggingCards.getPointValue() <=
-						PeggingCards.MAX_PEG_VALUE) {
-					
-					playerPeggedLast = false;
-					int points = peggingCards.addCard(computerHand.pegCard(i));
-					
-					if (points > 0) {
-						controller.appendStatusText("Computer pegged " + points + " points.");
-						boolean win = addComputerPoints(points);
-						if (win) { computerWon(); return true; }
-					}
-					//break out of for loop once card is played
-					break;
-				}
+		boolean opponentPeggedLast = playerPeggedLast;
+		int opponentCardsLeft = playerHand.size();
+		
+		computerThinking = true;
+		decisionRunner.decide(
+				deadline -> computerPegging.selectCard(computerHand, peggingCards, 
+						computerSeenCards, opponentCardsLeft, opponentPeggedLast, deadline),
+				() -> FALLBACK_PEGGING.selectCard(computerHand, peggingCards, 
+						computerSeenCards, opponentCardsLeft, opponentPeggedLast, 0),
+				this::computerPegged);
+	}
+	
+	//reports how far the computer's search got before choosing
+	private void reportSearch(String choice, Decision decision) {
+		listener.statusText("Computer chose its " + choice + " after " 
+				+ decision.getIterations() + " iterations" 
+				+ (decision.isComplete() ? "." : ", stopped by the deadline."));
+	}
+	
+	//plays the card chosen by the computer's pegging strategy
+	private void computerPegged(Decision decision) {
+		
+		computerThinking = false;
+		reportSearch("card", decision);
+		
+		playerPeggedLast = false;
+		Card card = computerHand.pegCard(decision.getChoice());
+		playerSeenCards |= 1L << card.getIndex();
+		int points = peggingCards.addCard(card);
+		
+		if (points > 0) {
+			listener.statusText("Computer pegged " + points + " points.");
+			boolean win = addComputerPoints(points, ScoreCategory.PEGGING);
+			if (win) { 
+				computerWon();
+				listener.displayChanged();
+				return;
 			}
-		} while (!playerCanPeg() && computerCanPeg());
+		}
 		
-		return false;
+		//keep pegging while player can't
+		if (!playerCanPeg() && computerCanPeg()) {
+			computerPlay();
+		} else {
+			handleLastPeggingCard();
+		}
+		
+		listener.displayChanged();
 	}
 	
 	/**
@@ -482,9 +626,9 @@ public final class Cribbage {
 			
 			//tally computer hand points
 			int computerPoints = Scoring.pointsInHand(computerHand.getHand(), cutCard);
-			controller.appendStatusText("Computer scored " + computerPoints + " in its hand.");
+			listener.statusText("Computer scored " + computerPoints + " in its hand.");
 			
-			if (addComputerPoints(computerPoints)) {
+			if (addComputerPoints(computerPoints, ScoreCategory.HAND)) {
 				//handle win
 				computerWon();
 				return true;
@@ -492,9 +636,9 @@ public final class Cribbage {
 			
 			//tally player hand points
 			int playerPoints = Scoring.pointsInHand(playerHand.getHand(), cutCard);
-			controller.appendStatusText("Player scored " + playerPoints + " in its hand.");
+			listener.statusText("Player scored " + playerPoints + " in its hand.");
 			
-			if (addPlayerPoints(playerPoints)) {
+			if (addPlayerPoints(playerPoints, ScoreCategory.HAND)) {
 				//handle win
 				playerWon();
 				return true;
@@ -502,9 +646,9 @@ public final class Cribbage {
 			
 			//tally crib points for player
 			int cribPoints = Scoring.pointsInCrib(crib.getHand(), cutCard);
-			controller.appendStatusText("Player scored " + cribPoints + " in the crib.");
+			listener.statusText("Player scored " + cribPoints + " in the crib.");
 			
-			if (addPlayerPoints(cribPoints)) {
+			if (addPlayerPoints(cribPoints, ScoreCategory.CRIB)) {
 				//handle win
 				playerWon();
 				return true;
@@ -517,9 +661,9 @@ public final class Cribbage {
 			
 			//tally player hand points
 			int playerPoints = Scoring.pointsInHand(playerHand.getHand(), cutCard);
-			controller.appendStatusText("Player scored " + playerPoints + " in its hand.");
+			listener.statusText("Player scored " + playerPoints + " in its hand.");
 			
-			if (addPlayerPoints(playerPoints)) {
+			if (addPlayerPoints(playerPoints, ScoreCategory.HAND)) {
 				//handle win
 				playerWon();
 				return true;
@@ -527,9 +671,9 @@ public final class Cribbage {
 			
 			//tally computer hand points
 			int computerPoints = Scoring.pointsInHand(computerHand.getHand(), cutCard);
-			controller.appendStatusText("Computer scored " + computerPoints + " in its hand.");
+			listener.statusText("Computer scored " + computerPoints + " in its hand.");
 			
-			if (addComputerPoints(computerPoints)) {
+			if (addComputerPoints(computerPoints, ScoreCategory.HAND)) {
 				//handle win
 				computerWon();
 				return true;
@@ -537,9 +681,9 @@ public final class Cribbage {
 			
 			//tally crib points for computer
 			int cribPoints = Scoring.pointsInCrib(crib.getHand(), cutCard);
-			controller.appendStatusText("Computer scored " + cribPoints + " in the crib.");
+			listener.statusText("Computer scored " + cribPoints + " in the crib.");
 			
-			if (addComputerPoints(cribPoints)) {
+			if (addComputerPoints(cribPoints, ScoreCategory.CRIB)) {
 				//handle win
 				computerWon();
 				return true;
@@ -558,12 +702,12 @@ public final class Cribbage {
 	}
 	
 	public void computerWon() {
-		controller.appendStatusText("Computer WON!!");
+		listener.statusText("Computer WON!!");
 		setGameState(GameState.GAME_OVER);
 	}
 	
 	void playerWon() {
-		controller.appendStatusText("Player WON!!");
+		listener.statusText("Player WON!!");
 		setGameState(GameState.GAME_OVER);
 	}
 	
@@ -602,5 +746,17 @@ public final class Cribbage {
 	boolean isPlayerDealer() {
 		return playersDeal;
 	}
+	
+	boolean isPlayerPeggedLast() {
+		return playerPeggedLast;
+	}
+	
+	long getPlayerSeenCards() {
+		return playerSeenCards;
+	}
+	
+	boolean isComputerThinking() {
+		return computerThinking;
+	}
 
 }
@@ -0,0 +1,74 @@
+package application;
+
+/**
+ * Class includes static methods for enumerating the possible cut cards by
+ * rank and by suit.
+ *
+ * Points for fifteens, pairs and runs depend only on the cut card's rank, and
+ * flushes and nobs only on its suit, so expected scores can be taken over the
+ * 13 ranks and 4 suits weighted by how many unseen cards have each, rather
+ * than over every unseen card.  The counts are packed 4 bits each into a long
+ * so nothing is allocated.
+ */
+
+public final class CutCards {
+
+	//bits per count in a packed word of counts
+	static final int COUNT_BITS = 4;
+	static final long COUNT_MASK = 0xF;
+
+	//number of suits
+	static final int NUM_SUITS = 4;
+
+	//private constructor so class can't be instantiated
+	private CutCards() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Returns the number of cards of each rank not among seenCards, packed 4
+	 * bits per rank with ace in the lowest bits.
+	 *
+	 * @param seenCards bit mask of cards, indexed by Card.getIndex()
+	 */
+	public static long rankCounts(long seenCards) {
+
+		long counts = 0;
+
+		for (int rank = 0; rank < Card.NAMES_PER_SUIT; rank++) {
+			long count = 0;
+			for (int suit = 0; suit < NUM_SUITS; suit++) {
+				count += ~seenCards >>> (suit * Card.NAMES_PER_SUIT + rank) & 1;
+			}
+			counts |= count << (rank * COUNT_BITS);
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Returns the number of cards of each suit not among seenCards, packed 4
+	 * bits per suit in Card.Suit order with the first suit in the lowest bits.
+	 *
+	 * @param seenCards bit mask of cards, indexed by Card.getIndex()
+	 */
+	public static long suitCounts(long seenCards) {
+
+		long counts = 0;
+		long suitMask = (1L << Card.NAMES_PER_SUIT) - 1;
+
+		for (int suit = 0; suit < NUM_SUITS; suit++) {
+			long suitCards = ~seenCards >>> (suit * Card.NAMES_PER_SUIT) & suitMask;
+			counts |= (long) Long.bitCount(suitCards) << (suit * COUNT_BITS);
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Returns the count at index (a rank or suit) in a packed word of counts.
+	 */
+	public static int count(long counts, int index) {
+		return (int) (counts >>> (index * COUNT_BITS) & COUNT_MASK);
+	}
+}
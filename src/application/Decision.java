@@ -0,0 +1,52 @@
+package application;
+
+/**
+ * Immutable result of an anytime search: the best choice found before the
+ * search finished or ran out of time, and how far the search got.
+ */
+
+public final class Decision {
+
+	private final int choice;
+	private final int iterations;
+	private final boolean complete;
+
+	/**
+	 * Creates a decision.
+	 * 
+	 * @param choice the choice made, such as a hand index or discard mask
+	 * @param iterations samples, playouts or options evaluated by the search
+	 * @param complete false if the search was cut short by its deadline
+	 */
+	public Decision(int choice, int iterations, boolean complete) {
+		this.choice = choice;
+		this.iterations = iterations;
+		this.complete = complete;
+	}
+
+	/**
+	 * Returns true if a deadline, given as a System.nanoTime() value, has 
+	 * passed.
+	 */
+	static boolean isPast(long deadline) {
+		return System.nanoTime() >= deadline;
+	}
+
+	int getChoice() {
+		return choice;
+	}
+
+	int getIterations() {
+		return iterations;
+	}
+
+	boolean isComplete() {
+		return complete;
+	}
+
+	@Override
+	public String toString() {
+		return "choice " + choice + " after " + iterations + " iterations"
+				+ (complete ? "" : " (deadline reached)");
+	}
+}
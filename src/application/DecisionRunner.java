@@ -0,0 +1,104 @@
+package application;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the computer's anytime searches away from the thread handling user
+ * input, so the display never waits on the computer.
+ *
+ * Each search gets a fixed wall-clock budget.  The decision is handed to a
+ * callback run on the callback executor, such as Platform::runLater to get
+ * back onto the JavaFX application thread.  A display's runner searches on a
+ * pool from newSearchPool(), which the runners of several games can share.  A
+ * direct runner searches and returns on the calling thread with no time
+ * limit, for headless games.
+ */
+
+public final class DecisionRunner {
+
+	//default time allowed for each decision
+	public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+	//budget for searching until finished
+	public static final long UNLIMITED = -1;
+
+	private final Executor searchExecutor;
+	private final Executor callbackExecutor;
+	private final long budgetNanos;
+
+	/**
+	 * Creates a runner.
+	 * 
+	 * @param searchExecutor runs the searches
+	 * @param callbackExecutor runs the callbacks given to decide()
+	 * @param budgetMillis time allowed for each decision, or UNLIMITED
+	 */
+	public DecisionRunner(Executor searchExecutor, Executor callbackExecutor, 
+			long budgetMillis) {
+		this.searchExecutor = searchExecutor;
+		this.callbackExecutor = callbackExecutor;
+		this.budgetNanos = budgetMillis == UNLIMITED ? UNLIMITED : budgetMillis * 1000000;
+	}
+
+	/**
+	 * Returns a runner that searches and calls back on the calling thread, 
+	 * with no time limit.
+	 */
+	public static DecisionRunner direct() {
+		return new DecisionRunner(Runnable::run, Runnable::run, UNLIMITED);
+	}
+
+	/**
+	 * Runs a search on the search executor and passes its decision to 
+	 * onDecision on the callback executor.  The budget starts when the search
+	 * does, so a search waiting for a thread in a shared pool still gets all
+	 * of it, and the wait shows as a slower move rather than a weaker one.
+	 *
+	 * If the search throws, the error is printed and the fallback's decision
+	 * is passed on instead, so the game always gets a move.
+	 *
+	 * @param fallback makes a simple legal decision without searching
+	 */
+	void decide(AnytimeSearch search, Supplier<Decision> fallback,
+			Consumer<Decision> onDecision) {
+
+		searchExecutor.execute(() -> {
+			long deadline = budgetNanos == UNLIMITED ? Long.MAX_VALUE 
+					: System.nanoTime() + budgetNanos;
+
+			Decision decision;
+			try {
+				decision = search.search(deadline);
+			} catch (Throwable e) {
+				e.printStackTrace();
+				decision = fallback.get();
+			}
+
+			Decision made = decision;
+			callbackExecutor.execute(() -> onDecision.accept(made));
+		});
+	}
+
+	/**
+	 * Creates a fixed pool of daemon threads for searching, to be shared by
+	 * the runners of several games.  However many games there are, at most
+	 * numThreads searches run at once, and the rest wait their turn before
+	 * their budgets start.
+	 */
+	public static ExecutorService newSearchPool(int numThreads) {
+
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(numThreads, runnable -> {
+			Thread thread = new Thread(runnable,
+					"computer-player-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+}
@@ -1,55 +1,76 @@
 package application;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Class represents a deck of playing cards.
  *
+ * The deck shuffles with its own SplittableRandom, so a deck given a seeded
+ * generator always deals the same cards, and decks on different threads don't
+ * share a generator.  gameRandom() gives the generator for any game of a 
+ * seeded run, so parallel simulations deal the same games however they're
+ * split, and any game can be dealt again on its own.
+ * 
+ * The order of the cards is kept by an IntDeck, which shuffles only as far as
+ * cards are drawn, and the cards drawn are the shared Card instances, so a
+ * deck holds no cards of its own.
  */
 
 public class Deck {
 
-	private List<Card> cards = new ArrayList<Card>();
+	//odd constant spacing the seeds of successive games, as used by
+	//SplittableRandom itself
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	//order in which the cards are drawn
+	private final IntDeck order;
 	
-	//iterator for tracking current draw card
-	private Iterator<Card> iterator;
+	/**
+	 * Creates a newly shuffled deck of 52 cards, with an unseeded generator.
+	 */
+	public Deck () {
+		this(new SplittableRandom());
+	}
 	
 	/**
 	 * Creates a newly shuffled deck of 52 cards.
+	 * 
+	 * @param random generator used for every shuffle of this deck
 	 */
-	public Deck () {
-		
-		//create a deck of cards by adding all 52 cards
-		for (Card.Suit suit : Card.Suit.values()) {
-			for (Card.Name value : Card.Name.values()) {
-				cards.add(new Card(suit, value));
-			}
-		}
+	public Deck (SplittableRandom random) {
+		order = new IntDeck(random);
+	}
+	
+	/**
+	 * Returns the generator for a game of a seeded run.  The same seed and
+	 * game index always give the same generator, and different games give 
+	 * independent ones.
+	 */
+	public static SplittableRandom gameRandom(long seed, long gameIndex) {
 		
-		//shuffle the deck so its ready for first use
-		shuffle();
+		//SplittableRandom mixes its seed on each call, so the first value is a
+		//well mixed seed for the game
+		return new SplittableRandom(
+				new SplittableRandom(seed + gameIndex * GOLDEN_GAMMA).nextLong());
 	}
 	
 	/**
-	 * Shuffles the deck and resets iterator for drawing cards. 
+	 * Puts the cards back in order and uses a new generator for the following
+	 * shuffles, so they no longer depend on earlier shuffles.
+	 */
+	void setRandom(SplittableRandom random) {
+		order.setRandom(random);
+	}
+	
+	/**
+	 * Returns all cards to the deck, ready to be drawn in a new random order.
 	 * 
 	 * NOTE: Drawn cards are never removed from the deck, so no need to return
 	 * drawn cards to deck prior to shuffling.
 	 */
 	public void shuffle() {
-		
-		//size of deck should always be 52
-		assert cards.size() == 52 : "cards.size() should be 52 but instead is " + cards.size();
-		
-		//reset all of the cards to default values
-		for (Card card: cards) {
-			card.setFaceUp(false);
-		}
-		
-		Collections.shuffle(cards);
-		iterator = cards.iterator();
+		order.shuffle();
 	}
 
 	/**
@@ -57,13 +78,9 @@ public class Deck {
 	 * remaining cards
 	 */
 	public Card drawCard() {
-		//Note: iterator is used to simulate drawing cards, but cards are never
-		//actually removed from the deck
-		if (iterator.hasNext()) {
-			return iterator.next();
-		} else {
-			return null;
-		}
+		int card = order.draw();
+		
+		return card < 0 ? null : Card.fromIndex(card);
 	}
 	
 	/**
@@ -94,15 +111,24 @@ public class Deck {
 	}
 	
 	/**
-	 * Draws and returns cut card.
+	 * Draws and returns cut card, chosen at random from the cards left in the
+	 * deck.
 	 */
-	//TODO:  make cut card random instead of being drawn from top of deck
 	Card getCutCard() {
 		return drawCard();
 	}
 	
 	@Override
 	public String toString() {
-		return cards.toString();
+		
+		//list the cards drawn since the last shuffle
+		StringBuilder builder = new StringBuilder("[");
+		int numDrawn = IntDeck.SIZE - order.remaining();
+		for (int i = 0; i < numDrawn; i++) {
+			if (i > 0) builder.append(", ");
+			builder.append(Card.fromIndex(order.drawnCard(i)));
+		}
+		
+		return builder.append("]").toString();
 	}
 }
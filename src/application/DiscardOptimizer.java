@@ -0,0 +1,154 @@
+package application;
+
+/**
+ * Class includes static methods for choosing which 2 of 6 cards to discard to
+ * the crib.
+ *
+ * Each of the 15 ways of keeping 4 cards is rated by the expected points in
+ * the kept hand over the 46 possible cut cards, plus the expected points of
+ * the discards in the crib (CribExpectation) for the dealer, or minus them for
+ * the non-dealer.  Scoring is table-driven and nothing is allocated, so a
+ * discard takes microseconds once the crib expectations are cached.  The
+ * hand is scored once per cut rank rather than once per cut card, using the
+ * counts of unseen cards from CutCards.
+ */
+
+public final class DiscardOptimizer {
+
+	//number of cards dealt to each player
+	static final int NUM_DEALT = 6;
+
+	//number of cut cards not among the dealt cards
+	private static final int NUM_CUTS = 52 - NUM_DEALT;
+
+	//private constructor so class can't be instantiated
+	private DiscardOptimizer() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Returns the best 2 cards to discard from 6 int-encoded cards.
+	 * 
+	 * @param cards the 6 cards dealt
+	 * @param isDealer true if the crib belongs to the player discarding
+	 * @return bit mask with the bits set for the positions in cards to discard
+	 */
+	public static int bestDiscard(int[] cards, boolean isDealer) {
+		return bestDiscard(cards, isDealer, Long.MAX_VALUE).getChoice();
+	}
+
+	/**
+	 * Returns the best 2 cards to discard from 6 int-encoded cards among the
+	 * discards rated before the deadline.  Rating is usually far quicker than
+	 * any deadline, except while the crib expectations are first computed.
+	 * 
+	 * @param cards the 6 cards dealt
+	 * @param isDealer true if the crib belongs to the player discarding
+	 * @param deadline System.nanoTime() value at which to stop rating discards
+	 * @return decision whose choice is a bit mask with the bits set for the
+	 *         positions in cards to discard
+	 */
+	public static Decision bestDiscard(int[] cards, boolean isDealer, long deadline) {
+
+		assert cards.length == NUM_DEALT : "Expected " + NUM_DEALT
+				+ " cards but there were " + cards.length;
+
+		int bestMask = 0;
+		double bestValue = Double.NEGATIVE_INFINITY;
+		int rated = 0;
+
+		for (int discard0 = 0; discard0 < NUM_DEALT; discard0++) {
+			for (int discard1 = discard0 + 1; discard1 < NUM_DEALT; discard1++) {
+
+				if (rated > 0 && Decision.isPast(deadline)) {
+					return new Decision(bestMask, rated, false);
+				}
+
+				int discardMask = (1 << discard0) | (1 << discard1);
+				double value = expectedValue(cards, discardMask, isDealer);
+				rated++;
+
+				if (value > bestValue) {
+					bestValue = value;
+					bestMask = discardMask;
+				}
+			}
+		}
+
+		return new Decision(bestMask, rated, true);
+	}
+
+	/**
+	 * Returns the expected points from keeping 4 of 6 int-encoded cards: the
+	 * expected hand score, plus the expected crib score for the dealer or minus
+	 * it for the non-dealer.
+	 * 
+	 * @param cards the 6 cards dealt
+	 * @param discardMask bit mask with the bits set for the 2 discarded positions
+	 * @param isDealer true if the crib belongs to the player discarding
+	 */
+	static double expectedValue(int[] cards, int discardMask, boolean isDealer) {
+
+		//split the cards into the kept hand and the discards
+		int kept0 = -1, kept1 = -1, kept2 = -1, kept3 = -1;
+		int discard0 = -1, discard1 = -1;
+
+		for (int i = 0; i < NUM_DEALT; i++) {
+			if ((discardMask & (1 << i)) != 0) {
+				if (discard0 < 0) discard0 = cards[i]; else discard1 = cards[i];
+			} else if (kept0 < 0) {
+				kept0 = cards[i];
+			} else if (kept1 < 0) {
+				kept1 = cards[i];
+			} else if (kept2 < 0) {
+				kept2 = cards[i];
+			} else {
+				kept3 = cards[i];
+			}
+		}
+
+		//score the hand with every cut card not among the 6 dealt: fifteens,
+		//pairs and runs once per cut rank, weighted by the number of unseen
+		//cards of that rank, and nobs and flushes by the unseen cards per suit
+		long seenCards = (1L << kept0) | (1L << kept1) | (1L << kept2) | (1L << kept3) 
+				| (1L << discard0) | (1L << discard1);
+		long rankCounts = CutCards.rankCounts(seenCards);
+		long suitCounts = CutCards.suitCounts(seenCards);
+
+		int rank0 = Scoring.rankOf(kept0);
+		int rank1 = Scoring.rankOf(kept1);
+		int rank2 = Scoring.rankOf(kept2);
+		int rank3 = Scoring.rankOf(kept3);
+
+		int handPoints = 0;
+
+		for (int cutRank = 0; cutRank < Card.NAMES_PER_SUIT; cutRank++) {
+			int cuts = CutCards.count(rankCounts, cutRank);
+			if (cuts > 0) {
+				handPoints += cuts * ScoreTable.rankScore(rank0, rank1, rank2, rank3, cutRank);
+			}
+		}
+
+		//a kept jack scores nobs with each unseen card of its suit
+		handPoints += nobsCuts(kept0, suitCounts) + nobsCuts(kept1, suitCounts)
+				+ nobsCuts(kept2, suitCounts) + nobsCuts(kept3, suitCounts);
+
+		//a 4 card flush scores 4 with every cut, plus 1 more when the cut
+		//matches the suit
+		int suit = Scoring.suitOf(kept0);
+		if (Scoring.suitOf(kept1) == suit && Scoring.suitOf(kept2) == suit 
+				&& Scoring.suitOf(kept3) == suit) {
+			handPoints += 4 * NUM_CUTS + CutCards.count(suitCounts, suit);
+		}
+
+		double cribPoints = CribExpectation.expectedPoints(discard0, discard1);
+
+		return (double) handPoints / NUM_CUTS + (isDealer ? cribPoints : -cribPoints);
+	}
+
+	//returns the number of cuts with which a card scores nobs
+	private static int nobsCuts(int card, long suitCounts) {
+		return Scoring.rankOf(card) == Card.Name.JACK.ordinal() 
+				? CutCards.count(suitCounts, Scoring.suitOf(card)) : 0;
+	}
+}
@@ -0,0 +1,21 @@
+package application;
+
+/**
+ * Chooses which 2 of the 6 dealt cards to discard to the crib.
+ */
+
+public interface DiscardStrategy {
+
+	/**
+	 * Chooses the cards to discard, searching no longer than the deadline
+	 * allows.
+	 * 
+	 * @param cards the 6 int-encoded cards dealt, in hand order
+	 * @param isDealer true if the crib belongs to the player discarding
+	 * @param deadline System.nanoTime() value at which to stop searching;
+	 *        Long.MAX_VALUE to search until finished
+	 * @return decision whose choice is a bit mask with the bits set for the 2
+	 *         positions in cards to discard
+	 */
+	Decision selectDiscard(int[] cards, boolean isDealer, long deadline);
+}
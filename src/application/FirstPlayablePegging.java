@@ -0,0 +1,21 @@
+package application;
+
+/**
+ * Pegging strategy that plays the first card in the hand that can be played.
+ */
+
+public class FirstPlayablePegging implements PeggingStrategy {
+
+	@Override
+	public Decision selectCard(Hand hand, PeggingCards peggingCards, long seenCards,
+			int opponentCardsLeft, boolean opponentPeggedLast, long deadline) {
+
+		for (int i = 0; i < hand.size(); i++) {
+			if (peggingCards.canAdd(hand.peekAtCard(i))) {
+				return new Decision(i, 1, true);
+			}
+		}
+
+		return new Decision(-1, 1, true);
+	}
+}
@@ -0,0 +1,85 @@
+package application;
+
+import java.util.Arrays;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Measures frame times, the time between successive pulses of the JavaFX
+ * application thread, and logs how they're spread every few seconds.  A
+ * pulse is late whenever the thread is busy handling events, laying out or
+ * rendering, so frame times show how smoothly the display keeps up.
+ */
+
+final class FrameTimer extends AnimationTimer {
+
+	//time between reports
+	private static final long REPORT_NANOS = 5_000_000_000L;
+
+	//most frame times kept between reports; any more are only counted
+	private static final int MAX_FRAMES = 4096;
+
+	//what's being measured, shown in the reports
+	private final String label;
+
+	//frame times since the last report, in nanoseconds
+	private final long[] frameTimes = new long[MAX_FRAMES];
+	private int frames = 0;
+	private long totalTime = 0;
+
+	private long lastPulse = -1;
+	private long lastReport = -1;
+
+	/**
+	 * Creates a timer, which measures once started.
+	 *
+	 * @param label what's being measured, shown in the reports
+	 */
+	FrameTimer(String label) {
+		this.label = label;
+	}
+
+	@Override
+	public void handle(long now) {
+
+		if (lastPulse < 0) {
+			lastPulse = now;
+			lastReport = now;
+			return;
+		}
+
+		long frameTime = now - lastPulse;
+		lastPulse = now;
+
+		if (frames < MAX_FRAMES) {
+			frameTimes[frames] = frameTime;
+		}
+		frames++;
+		totalTime += frameTime;
+
+		if (now - lastReport >= REPORT_NANOS) {
+			report();
+			lastReport = now;
+		}
+	}
+
+	//logs the frame times since the last report, then starts over
+	private void report() {
+
+		int kept = Math.min(frames, MAX_FRAMES);
+		Arrays.sort(frameTimes, 0, kept);
+
+		System.out.println(String.format("Frames (%s): %d frames, %.1f fps, "
+				+ "mean %.2f ms, median %.2f ms, 99th percentile %.2f ms, max %.2f ms",
+				label, frames, frames * 1e9 / totalTime, millis(totalTime / frames),
+				millis(frameTimes[kept / 2]), millis(frameTimes[kept * 99 / 100]),
+				millis(frameTimes[kept - 1])));
+
+		frames = 0;
+		totalTime = 0;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+}
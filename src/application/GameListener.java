@@ -0,0 +1,37 @@
+package application;
+
+/**
+ * Receives the events produced by a game of Cribbage, such as the display
+ * (through GameModel) or a headless driver (HeadlessGame).
+ */
+
+public interface GameListener {
+
+	//the ways points are scored
+	public enum ScoreCategory {
+		JACK_CUT,
+		PEGGING,
+		LAST_CARD,
+		HAND,
+		CRIB;
+	}
+
+	/**
+	 * Called with a line of text describing what just happened.
+	 */
+	void statusText(String text);
+
+	/**
+	 * Called when the cards, scores or game state have changed.
+	 */
+	void displayChanged();
+
+	/**
+	 * Called whenever points are scored, before any win is announced.
+	 * 
+	 * @param player true if the player scored, false if the computer did
+	 * @param category how the points were scored
+	 * @param points number of points scored
+	 */
+	void pointsScored(boolean player, ScoreCategory category, int points);
+}
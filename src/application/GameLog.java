@@ -0,0 +1,218 @@
+package application;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+/**
+ * The lines of text describing a game, as a read-only observable list for a
+ * ListView, which only makes cells for the rows it shows.
+ *
+ * The log keeps at most a fixed number of lines in a ring buffer: once full,
+ * appending a line drops the oldest, so memory stays the same and appending
+ * takes constant time however long the game runs.  Lines can also be spilled
+ * to a file, which keeps them all.  Lines are appended on the JavaFX
+ * application thread; the file is written on a thread of its own and flushed
+ * every second and on close(), so appending never waits on the disk.
+ */
+
+public final class GameLog extends ObservableListBase<String> {
+
+	//number of lines kept by default
+	static final int DEFAULT_CAPACITY = 1000;
+
+	//time between flushes of the spill file
+	private static final long FLUSH_MILLIS = 1000;
+
+	//longest close() waits for the spill file to be written
+	private static final long CLOSE_MILLIS = 5000;
+
+	//the lines, the oldest at head
+	private final String[] lines;
+	private int head = 0;
+	private int size = 0;
+
+	//file every line is written to as well; null if none
+	private Spill spill;
+
+	/**
+	 * Creates a log keeping up to capacity lines.
+	 */
+	GameLog(int capacity) {
+		lines = new String[capacity];
+	}
+
+	/**
+	 * Also writes every line appended from now on to a file, adding to the end
+	 * of it.
+	 */
+	void spillTo(File file) throws IOException {
+
+		close();
+
+		spill = new Spill(new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file, true), StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Appends a line, dropping the oldest if the log is full.
+	 */
+	void append(String line) {
+
+		beginChange();
+
+		if (size == lines.length) {
+			nextRemove(0, lines[head]);
+			lines[head] = line;
+			head = (head + 1) % lines.length;
+		} else {
+			lines[(head + size) % lines.length] = line;
+			size++;
+		}
+		nextAdd(size - 1, size);
+
+		endChange();
+
+		if (spill != null) {
+			spill.write(line);
+		}
+	}
+
+	/**
+	 * Stops spilling lines to a file, waiting a few seconds at most for the
+	 * lines not yet written and then closing it.
+	 */
+	void close() {
+
+		if (spill != null) {
+			spill.close();
+			spill = null;
+		}
+	}
+
+	//stops spilling after the file couldn't be written and says so in the log;
+	//the spill is cleared first, so the message isn't spilled as well
+	private void spillFailed(Spill failed, IOException e) {
+
+		if (spill == failed) {
+			spill = null;
+			failed.executor.shutdown();
+		}
+
+		append("Couldn't write the game log to its file, no longer saving it: "
+				+ e.getMessage());
+	}
+
+	@Override
+	public String get(int index) {
+
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return lines[(head + index) % lines.length];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Writes lines to a file on its own daemon thread, flushing every
+	 * FLUSH_MILLIS.  The writer is only used on that thread.
+	 */
+	private final class Spill {
+
+		private final Writer writer;
+		private final ScheduledExecutorService executor;
+
+		//whether writing has failed; only used on the writing thread
+		private boolean failed = false;
+
+		Spill(Writer writer) {
+
+			this.writer = writer;
+			this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "game-log-writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			executor.scheduleWithFixedDelay(this::flush, FLUSH_MILLIS, FLUSH_MILLIS,
+					TimeUnit.MILLISECONDS);
+		}
+
+		//queues a line to be written
+		void write(String line) {
+
+			executor.execute(() -> {
+				if (failed) return;
+
+				try {
+					writer.write(line);
+					writer.write(System.lineSeparator());
+				} catch (IOException e) {
+					fail(e);
+				}
+			});
+		}
+
+		private void flush() {
+
+			if (failed) return;
+
+			try {
+				writer.flush();
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		//stops writing and reports the error on the JavaFX application thread,
+		//which shuts the executor down once it no longer queues lines
+		private void fail(IOException e) {
+
+			failed = true;
+
+			try {
+				writer.close();
+			} catch (IOException closeException) {
+				//already failed; the first error is the one reported
+			}
+
+			Platform.runLater(() -> spillFailed(this, e));
+		}
+
+		//writes the queued lines and closes the file
+		void close() {
+
+			executor.execute(() -> {
+				if (failed) return;
+
+				try {
+					writer.close();
+				} catch (IOException e) {
+					fail(e);
+				}
+			});
+			executor.shutdown();
+
+			try {
+				executor.awaitTermination(CLOSE_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
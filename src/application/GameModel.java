@@ -0,0 +1,202 @@
+package application;
+
+import java.util.List;
+
+import application.Cribbage.GameState;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The state of a game of Cribbage as JavaFX properties and observable lists,
+ * for views to bind to.
+ *
+ * The model listens to the game and, once per pulse however many times the
+ * game reports a change, copies the game's state into its properties and
+ * lists.  Only those whose value actually changed notify their listeners, so
+ * a view bound to just what it shows re-renders only when that changes, and
+ * any number of views can observe the same game.  Everything is read and
+ * changed on the JavaFX application thread.
+ */
+
+public final class GameModel implements GameListener {
+
+	//the game being observed; set by setCribbage()
+	private Cribbage cribbage;
+
+	private final ObservableList<Card> playerHand = FXCollections.observableArrayList();
+	private final ObservableList<Card> computerHand = FXCollections.observableArrayList();
+	private final ObservableList<Card> crib = FXCollections.observableArrayList();
+	private final ObservableList<Card> peggingCards = FXCollections.observableArrayList();
+
+	private final ReadOnlyBooleanWrapper playerHandFaceUp = new ReadOnlyBooleanWrapper();
+	private final ReadOnlyBooleanWrapper computerHandFaceUp = new ReadOnlyBooleanWrapper();
+	private final ReadOnlyBooleanWrapper cribFaceUp = new ReadOnlyBooleanWrapper();
+
+	private final ReadOnlyObjectWrapper<Card> cutCard = new ReadOnlyObjectWrapper<Card>();
+
+	private final ReadOnlyIntegerWrapper playerScore = new ReadOnlyIntegerWrapper();
+	private final ReadOnlyIntegerWrapper computerScore = new ReadOnlyIntegerWrapper();
+	private final ReadOnlyIntegerWrapper peggingScore = new ReadOnlyIntegerWrapper();
+	private final ReadOnlyBooleanWrapper playerDealer = new ReadOnlyBooleanWrapper();
+
+	private final ReadOnlyObjectWrapper<GameState> gameState =
+			new ReadOnlyObjectWrapper<GameState>();
+
+	//the most recent lines of text describing the game, oldest first
+	private final GameLog log = new GameLog(GameLog.DEFAULT_CAPACITY);
+
+	//read-only views of the lists, made once: they listen to the lists only
+	//weakly, so must be kept for as long as the model
+	private final ObservableList<Card> playerHandView =
+			FXCollections.unmodifiableObservableList(playerHand);
+	private final ObservableList<Card> computerHandView =
+			FXCollections.unmodifiableObservableList(computerHand);
+	private final ObservableList<Card> cribView =
+			FXCollections.unmodifiableObservableList(crib);
+	private final ObservableList<Card> peggingCardsView =
+			FXCollections.unmodifiableObservableList(peggingCards);
+
+	//whether an update has been requested and not yet made
+	private boolean updatePending = false;
+
+	/**
+	 * Sets the game to observe; the game must report to this model.
+	 */
+	void setCribbage(Cribbage cribbage) {
+		this.cribbage = cribbage;
+	}
+
+	@Override
+	public void statusText(String text) {
+		log.append(text);
+	}
+
+	@Override
+	public void displayChanged() {
+
+		//a single input can change the game several times; update once, after
+		//the input's been handled and before the next frame
+		if (!updatePending) {
+			updatePending = true;
+			Platform.runLater(() -> {
+				updatePending = false;
+				update();
+			});
+		}
+	}
+
+	@Override
+	public void pointsScored(boolean player, ScoreCategory category, int points) {
+		//scores are observed through the score properties
+	}
+
+	/**
+	 * Copies the game's state into the properties and lists.
+	 */
+	private void update() {
+
+		setCards(playerHand, cribbage.getPlayerHand().getHand());
+		setCards(computerHand, cribbage.getComputerHand().getHand());
+		setCards(crib, cribbage.getCrib().getHand());
+		setCards(peggingCards, cribbage.getPeggingCards().getList());
+
+		playerHandFaceUp.set(cribbage.getPlayerHand().isFaceUpHand());
+		computerHandFaceUp.set(cribbage.getComputerHand().isFaceUpHand());
+		cribFaceUp.set(cribbage.getCrib().isFaceUpHand());
+
+		cutCard.set(cribbage.getCutCard());
+
+		playerScore.set(cribbage.getPlayerScore());
+		computerScore.set(cribbage.getComputerScore());
+		peggingScore.set(cribbage.getPeggingScore());
+		playerDealer.set(cribbage.isPlayerDealer());
+
+		gameState.set(cribbage.getGameState());
+	}
+
+	/**
+	 * Adds a listener told whenever any of the cards, scores or game state
+	 * change, for views that redraw all they show at once.
+	 */
+	void addInvalidationListener(InvalidationListener listener) {
+
+		for (Observable observable : new Observable[] {playerHand, computerHand, crib,
+				peggingCards, playerHandFaceUp, computerHandFaceUp, cribFaceUp, cutCard,
+				playerScore, computerScore, peggingScore, playerDealer, gameState}) {
+			observable.addListener(listener);
+		}
+	}
+
+	//sets list to the cards, unless it already holds them, so its listeners
+	//only hear of real changes
+	private static void setCards(ObservableList<Card> list, List<Card> cards) {
+		if (!list.equals(cards)) {
+			list.setAll(cards);
+		}
+	}
+
+	ObservableList<Card> getPlayerHand() {
+		return playerHandView;
+	}
+
+	ObservableList<Card> getComputerHand() {
+		return computerHandView;
+	}
+
+	ObservableList<Card> getCrib() {
+		return cribView;
+	}
+
+	ObservableList<Card> getPeggingCards() {
+		return peggingCardsView;
+	}
+
+	ReadOnlyBooleanProperty playerHandFaceUpProperty() {
+		return playerHandFaceUp.getReadOnlyProperty();
+	}
+
+	ReadOnlyBooleanProperty computerHandFaceUpProperty() {
+		return computerHandFaceUp.getReadOnlyProperty();
+	}
+
+	ReadOnlyBooleanProperty cribFaceUpProperty() {
+		return cribFaceUp.getReadOnlyProperty();
+	}
+
+	ReadOnlyObjectProperty<Card> cutCardProperty() {
+		return cutCard.getReadOnlyProperty();
+	}
+
+	ReadOnlyIntegerProperty playerScoreProperty() {
+		return playerScore.getReadOnlyProperty();
+	}
+
+	ReadOnlyIntegerProperty computerScoreProperty() {
+		return computerScore.getReadOnlyProperty();
+	}
+
+	ReadOnlyIntegerProperty peggingScoreProperty() {
+		return peggingScore.getReadOnlyProperty();
+	}
+
+	ReadOnlyBooleanProperty playerDealerProperty() {
+		return playerDealer.getReadOnlyProperty();
+	}
+
+	ReadOnlyObjectProperty<GameState> gameStateProperty() {
+		return gameState.getReadOnlyProperty();
+	}
+
+	GameLog getLog() {
+		return log;
+	}
+}
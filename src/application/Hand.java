@@ -5,7 +5,9 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Represents a hand of cards.  Can be used for computer or player.
+ * Represents a hand of cards.  Can be used for computer or player.  Whether 
+ * the cards are shown face up is kept by the hand, not the cards, so the
+ * shared Card instances stay immutable.
  */
 
 public class Hand {
@@ -25,10 +27,6 @@ public class Hand {
 	 * @return true (as specified by Collection.add(E))
 	 */
 	boolean addCard(Card card) {
-		if (isFaceUpHand()) {
-			card.setFaceUp(true);
-		}
-		
 		boolean returnValue = cards.add(card);
 		
 		//sort the hand
@@ -41,8 +39,6 @@ public class Hand {
 	 * Add more than 1 card to the hand.
 	 */
 	void addCards(List<Card> cards) {
-		//using individual addCard method here to ensure faceUp is set
-		//appropriately for players
 		for (Card card: cards) {
 			addCard(card);
 		}
@@ -111,9 +107,7 @@ public class Hand {
 	 * Set the cards to be display faceup
 	 */
 	void turnCardsFaceUp() {
-		for (Card card: cards) {
-			card.setFaceUp(true);
-		}
+		isFaceUpHand = true;
 	}
 	
 	/**
@@ -0,0 +1,216 @@
+package application;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import application.Cribbage.GameState;
+
+/**
+ * Plays games of Cribbage without a display, with the player's seat taken by
+ * discard and pegging strategies instead of a person.
+ *
+ * The strategies' choices are fed to Cribbage as the same UserInput a person
+ * would give, so the game runs through the same state machine as with the
+ * display.  Searches run on the calling thread with no time limit, making
+ * each game a plain loop suited to simulations, benchmarks and tests.
+ * Instances are not thread safe, but separate instances can run on separate
+ * threads.
+ */
+
+public final class HeadlessGame implements GameListener {
+
+	//default number of games played by main()
+	private static final int DEFAULT_GAMES = 1000;
+
+	//Monte Carlo iterations per pegging decision in main(); far fewer than
+	//the display uses, so games take about a millisecond
+	private static final int MAIN_ITERATIONS = 500;
+
+	private final Cribbage cribbage;
+
+	//makes the player's moves
+	private final StrategyPlayer player;
+
+	private boolean started = false;
+
+	//points scored in the current game, and the number of times points were
+	//scored (including 0 points for a hand or crib), indexed by [0 for player,
+	//1 for computer][ScoreCategory ordinal]
+	private final int[][] points = new int[2][ScoreCategory.values().length];
+	private final int[][] scorings = new int[2][ScoreCategory.values().length];
+
+	//hands dealt in the current game
+	private int deals;
+
+	/**
+	 * Creates a game between 2 sets of strategies.
+	 *
+	 * @param playerDiscard chooses the player's discards
+	 * @param playerPegging chooses the player's pegging cards
+	 * @param computerDiscard chooses the computer's discards
+	 * @param computerPegging chooses the computer's pegging cards
+	 */
+	public HeadlessGame(DiscardStrategy playerDiscard, PeggingStrategy playerPegging,
+			DiscardStrategy computerDiscard, PeggingStrategy computerPegging) {
+
+		this(playerDiscard, playerPegging, computerDiscard, computerPegging,
+				Cribbage.WINNING_SCORE);
+	}
+
+	/**
+	 * Creates a game between 2 sets of strategies, played to a given score.
+	 *
+	 * @param winningScore points needed to win, such as Cribbage.FULL_GAME_SCORE
+	 */
+	public HeadlessGame(DiscardStrategy playerDiscard, PeggingStrategy playerPegging,
+			DiscardStrategy computerDiscard, PeggingStrategy computerPegging,
+			int winningScore) {
+
+		this.cribbage = new Cribbage(this, DecisionRunner.direct(),
+				computerDiscard, computerPegging, winningScore);
+		this.player = new StrategyPlayer(cribbage, playerDiscard, playerPegging);
+	}
+
+	/**
+	 * Plays a game to the end.  The winner of each game deals first in the
+	 * next, as with the display.
+	 *
+	 * @return true if the player won, false if the computer won
+	 */
+	public boolean play() {
+		return play(new SplittableRandom());
+	}
+
+	/**
+	 * Plays a game to the end, dealt using random starting from a deck in
+	 * order, with a chosen first dealer.
+	 *
+	 * @param playerDealsFirst true for the player to deal first, false for
+	 *        the computer
+	 * @return true if the player won, false if the computer won
+	 */
+	public boolean play(SplittableRandom random, boolean playerDealsFirst) {
+
+		cribbage.setPlayerDealsFirst(playerDealsFirst);
+
+		return play(random);
+	}
+
+	/**
+	 * Plays a game to the end, dealt using random starting from a deck in
+	 * order.  The same generator seed always deals the same cards.
+	 *
+	 * @param random generator for the game's deals, such as from
+	 *        Deck.gameRandom()
+	 * @return true if the player won, false if the computer won
+	 */
+	public boolean play(SplittableRandom random) {
+
+		cribbage.setRandom(random);
+
+		for (int seat = 0; seat < 2; seat++) {
+			Arrays.fill(points[seat], 0);
+			Arrays.fill(scorings[seat], 0);
+		}
+		deals = 0;
+
+		if (started) {
+			cribbage.handleUserInput(UserInput.getInstanceButtonAction());
+		} else {
+			started = true;
+			cribbage.start();
+		}
+
+		while (cribbage.getGameState() != GameState.GAME_OVER) {
+
+			if (cribbage.getGameState() == GameState.PLAYER_DISCARD) {
+				deals++;
+			}
+
+			player.move();
+		}
+
+		return cribbage.getPlayerScore() > cribbage.getComputerScore();
+	}
+
+	/**
+	 * Returns the points scored in a category during the last game played.
+	 *
+	 * @param player true for the player's points, false for the computer's
+	 */
+	int getPoints(boolean player, ScoreCategory category) {
+		return points[player ? 0 : 1][category.ordinal()];
+	}
+
+	/**
+	 * Returns the number of times points were scored in a category during the
+	 * last game played.  Hands and cribs are counted even when they score 0.
+	 *
+	 * @param player true for the player's scorings, false for the computer's
+	 */
+	int getScorings(boolean player, ScoreCategory category) {
+		return scorings[player ? 0 : 1][category.ordinal()];
+	}
+
+	/**
+	 * Returns the number of hands dealt during the last game played.
+	 */
+	int getDeals() {
+		return deals;
+	}
+
+	int getPlayerScore() {
+		return cribbage.getPlayerScore();
+	}
+
+	int getComputerScore() {
+		return cribbage.getComputerScore();
+	}
+
+	@Override
+	public void statusText(String text) {
+		//nothing is shown
+	}
+
+	@Override
+	public void displayChanged() {
+		//nothing is shown
+	}
+
+	@Override
+	public void pointsScored(boolean player, ScoreCategory category, int points) {
+		this.points[player ? 0 : 1][category.ordinal()] += points;
+		scorings[player ? 0 : 1][category.ordinal()]++;
+	}
+
+	/**
+	 * Plays games of expected value discards and single-threaded Monte Carlo
+	 * pegging against expected value discards and first playable pegging,
+	 * printing the results.
+	 *
+	 * @param args optional number of games
+	 */
+	public static void main(String[] args) {
+
+		int numGames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+
+		HeadlessGame game = new HeadlessGame(
+				DiscardOptimizer::bestDiscard, new PeggingMonteCarlo(1, MAIN_ITERATIONS,
+						ForkJoinPool.commonPool(), new SplittableRandom()),
+				DiscardOptimizer::bestDiscard, new FirstPlayablePegging());
+
+		long startTime = System.nanoTime();
+		int playerWins = 0;
+
+		for (int i = 0; i < numGames; i++) {
+			if (game.play()) playerWins++;
+		}
+
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+
+		System.out.println("Player won " + playerWins + " of " + numGames
+				+ " games in " + String.format("%.2f", seconds) + " s ("
+				+ String.format("%.0f", numGames / seconds) + " games/s).");
+	}
+}
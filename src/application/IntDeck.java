@@ -0,0 +1,137 @@
+package application;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A deck of int-encoded cards (Card.getIndex()) for simulations.
+ *
+ * The cards are held in an int[52] permutation.  Rather than shuffling the
+ * whole deck up front, each draw swaps a card chosen at random from the
+ * undrawn cards into the next position: a Fisher-Yates shuffle done only as
+ * far as cards are drawn.  Shuffling just starts drawing from the top again,
+ * since drawing at random from any order of the cards deals uniformly.  A
+ * round of 2 hands and a cut card costs 13 random numbers and swaps, and
+ * nothing is allocated.  In particular the cut card, drawn after the hands,
+ * is chosen uniformly from the cards left in constant time.
+ */
+
+public final class IntDeck {
+
+	//number of cards in a deck
+	public static final int SIZE = 52;
+
+	//the cards; those at positions below drawn have been drawn, in order
+	private final int[] cards = new int[SIZE];
+	private int drawn = 0;
+
+	private SplittableRandom random;
+
+	/**
+	 * Creates a deck with an unseeded generator.
+	 */
+	public IntDeck() {
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Creates a deck.
+	 *
+	 * @param random generator used for every draw from this deck
+	 */
+	public IntDeck(SplittableRandom random) {
+		setRandom(random);
+	}
+
+	/**
+	 * Puts the cards back in order and uses a new generator for the following
+	 * draws, so they no longer depend on earlier draws.
+	 */
+	void setRandom(SplittableRandom random) {
+
+		this.random = random;
+
+		for (int i = 0; i < SIZE; i++) {
+			cards[i] = i;
+		}
+		drawn = 0;
+	}
+
+	/**
+	 * Returns all cards to the deck.  This takes constant time, as the cards
+	 * are shuffled as they are drawn.
+	 */
+	public void shuffle() {
+		drawn = 0;
+	}
+
+	/**
+	 * Draws a card chosen at random from the cards not yet drawn.
+	 *
+	 * @return the card, or -1 if every card has been drawn
+	 */
+	public int draw() {
+
+		if (drawn == SIZE) return -1;
+
+		int j = drawn + random.nextInt(SIZE - drawn);
+		int card = cards[j];
+		cards[j] = cards[drawn];
+		cards[drawn] = card;
+		drawn++;
+
+		return card;
+	}
+
+	/**
+	 * Draws numCards cards into hand, starting at offset.
+	 *
+	 * @return false, drawing nothing, if fewer than numCards cards remain
+	 */
+	public boolean deal(int[] hand, int offset, int numCards) {
+
+		if (numCards > remaining()) return false;
+
+		for (int i = 0; i < numCards; i++) {
+			hand[offset + i] = draw();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the number of cards not yet drawn.
+	 */
+	public int remaining() {
+		return SIZE - drawn;
+	}
+
+	/**
+	 * Returns a bit mask, indexed by card, of the cards drawn since the last
+	 * shuffle.  The cards left to cut can be counted from it with CutCards.
+	 */
+	long drawnCards() {
+
+		long mask = 0;
+		for (int i = 0; i < drawn; i++) {
+			mask |= 1L << cards[i];
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Returns the card drawn at position (0 for the first card drawn since
+	 * the last shuffle).
+	 */
+	int drawnCard(int position) {
+		assert position < drawn : "Only " + drawn + " cards have been drawn";
+
+		return cards[position];
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(cards, drawn));
+	}
+}
@@ -1,35 +1,306 @@
 package application;
 	
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 /**
  * Main class to launch application.
  *
+ * Logs how long each phase of starting takes.  Run with --eager-start to load
+ * the card images and start the game before the window is first shown, and
+ * with --log-file=<file> to also write the game log to a file.
+ *
+ * Run with --tables=<n> to play n games at once, each on its own tab.  The
+ * tables share the card images, and their computers search on one pool of
+ * threads, a thread per core at most, each with its own smaller pegging
+ * search.  Add --log-memory to log the memory each table adds; it collects
+ * garbage while starting, so it's off by default to keep startup fast.
  */
 
 public class Main extends Application {
 	
+	//command line option to load everything before showing the window, as
+	//before there was a fast start, to compare startup times
+	private static final String EAGER_START_OPTION = "--eager-start";
+	
+	//command line option to also write the game log to a file, as
+	//--log-file=<file>; with several tables, table n writes to <file>.n
+	private static final String LOG_FILE_OPTION = "--log-file=";
+	
+	//command line option for the number of tables, as --tables=<n>
+	private static final String TABLES_OPTION = "--tables=";
+	
+	//command line option to log the memory used by each table
+	private static final String MEMORY_OPTION = "--log-memory";
+	
+	//tree nodes of each table's pegging search when there are several tables,
+	//about a quarter of a megabyte; enough for most of a decision's budget
+	private static final int TABLE_MAX_NODES = 1 << 13;
+	
+	private final StartupTimer startupTimer = new StartupTimer();
+	
+	//the games' logs; added as the games start
+	private final List<GameLog> gameLogs = new ArrayList<GameLog>();
+	
+	//whether to log each table's memory
+	private boolean logMemory;
+	
+	//heap used after creating the first table's display and after creating
+	//all of them, to find each table's share
+	private long firstDisplayMemory;
+	private long allDisplaysMemory;
+	
 	@Override
 	public void start(Stage primaryStage) {
 		try {
+			boolean fastStart = !getParameters().getRaw().contains(EAGER_START_OPTION);
+			int numTables = 1;
+			for (String arg : getParameters().getRaw()) {
+				if (arg.startsWith(TABLES_OPTION)) {
+					numTables = parseTables(arg.substring(TABLES_OPTION.length()));
+				}
+			}
+			
+			if (numTables < 1) {
+				System.err.println("Number of tables must be a whole number of at least 1: "
+						+ TABLES_OPTION + "<n>");
+				Platform.exit();
+				return;
+			}
+			
+			logMemory = numTables > 1 && getParameters().getRaw().contains(MEMORY_OPTION);
+			
+			long begin = startupTimer.now();
 			//Parent root = FXMLLoader.load(getClass().getResource("Main.fxml"));
-			MainController mainController = new MainController();
-			Scene scene = new Scene(mainController);
+			List<MainController> mainControllers = new ArrayList<MainController>();
+			for (int i = 0; i < numTables; i++) {
+				mainControllers.add(new MainController());
+				
+				if (logMemory && i == 0) {
+					firstDisplayMemory = usedMemory();
+				}
+			}
+			if (logMemory) {
+				allDisplaysMemory = usedMemory();
+			}
+			
+			Scene scene = new Scene(tables(mainControllers));
 			scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+			startupTimer.phaseDone("FXML load", begin);
+			
+			//a fast start shows the window first, decodes the card images in
+			//the background and starts the game once the window is up; the
+			//tables share the images, so they're decoded once
+			if (!fastStart) {
+				begin = startupTimer.now();
+				for (MainController mainController : mainControllers) {
+					mainController.loadCardImages(false);
+				}
+				startupTimer.phaseDone("image decode", begin);
+			}
+			
+			begin = startupTimer.now();
 			primaryStage.setTitle("CribbageFX");
 			primaryStage.setScene(scene);
 			primaryStage.show();
+			startupTimer.phaseDone("stage show", begin);
 			
-			//let's get the game started...
-			new Cribbage (mainController);
+			if (fastStart) {
+				long decodeBegin = startupTimer.now();
+				List<Image> cardImages = null;
+				for (MainController mainController : mainControllers) {
+					cardImages = mainController.loadCardImages(true);
+				}
+				timeDecoding(cardImages, decodeBegin);
+				startupTimer.timeFirstFrame("fast start", () -> startGames(mainControllers));
+			} else {
+				startGames(mainControllers);
+				startupTimer.timeFirstFrame("eager start", () -> {});
+			}
 			
 		} catch(Exception e) {
 			e.printStackTrace();
 		}
 	}
 	
+	/**
+	 * Returns the number of tables given with TABLES_OPTION, or 0 if it isn't
+	 * a number.
+	 */
+	private static int parseTables(String value) {
+		
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+	
+	/**
+	 * Returns the node showing the tables: the one table, or a tab for each.
+	 */
+	private static Parent tables(List<MainController> mainControllers) {
+		
+		if (mainControllers.size() == 1) {
+			return mainControllers.get(0);
+		}
+		
+		TabPane tabPane = new TabPane();
+		for (int i = 0; i < mainControllers.size(); i++) {
+			Tab tab = new Tab("Table " + (i + 1), mainControllers.get(i));
+			tab.setClosable(false);
+			tabPane.getTabs().add(tab);
+		}
+		
+		return tabPane;
+	}
+	
+	/**
+	 * Creates a game for each table and deals the first hands.
+	 */
+	private void startGames(List<MainController> mainControllers) {
+		
+		long begin = startupTimer.now();
+		int numTables = mainControllers.size();
+		
+		//map the precomputed scoring tables if they've been generated;
+		//otherwise they're computed as needed
+		try {
+			TableStore.mapTables(new File(TableStore.DEFAULT_DIRECTORY));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		
+		//the computers think in the background, on a pool shared by the
+		//tables, and make their moves back on the JavaFX application thread
+		DecisionRunner decisionRunner = new DecisionRunner(
+				DecisionRunner.newSearchPool(Math.min(numTables,
+						Runtime.getRuntime().availableProcessors())),
+				Platform::runLater, DecisionRunner.DEFAULT_BUDGET_MILLIS);
+		
+		long firstGameMemory = 0;
+		
+		for (int i = 0; i < numTables; i++) {
+			
+			//one table searches on every core; several each search on the
+			//pool thread running the decision, with a smaller tree
+			PeggingMonteCarlo computerPegging = numTables == 1 ? new PeggingMonteCarlo()
+					: new PeggingMonteCarlo(1, PeggingMonteCarlo.DEFAULT_ITERATIONS,
+							ForkJoinPool.commonPool(), new SplittableRandom(),
+							TABLE_MAX_NODES);
+			startGame(mainControllers.get(i), i, decisionRunner, computerPegging);
+			
+			if (logMemory && i == 0) {
+				firstGameMemory = usedMemory();
+			}
+		}
+		
+		startupTimer.phaseDone("engine init", begin);
+		
+		if (logMemory) {
+			
+			//what the first table used includes what all the tables share, so
+			//each table's own memory is what the others add
+			long displayMemory = (allDisplaysMemory - firstDisplayMemory) / (numTables - 1);
+			long gameMemory = (usedMemory() - firstGameMemory) / (numTables - 1);
+			
+			System.out.println(String.format("Memory: %d tables, %d KB per table "
+					+ "(display %d KB, game %d KB)", numTables,
+					(displayMemory + gameMemory) / 1024, displayMemory / 1024,
+					gameMemory / 1024));
+		}
+	}
+	
+	/**
+	 * Creates the game shown by a table and deals the first hand.
+	 */
+	private void startGame(MainController mainController, int table,
+			DecisionRunner decisionRunner, PeggingStrategy computerPegging) {
+		
+		//the display observes the game through its model
+		GameModel gameModel = new GameModel();
+		GameLog gameLog = gameModel.getLog();
+		gameLogs.add(gameLog);
+		
+		for (String arg : getParameters().getRaw()) {
+			if (arg.startsWith(LOG_FILE_OPTION)) {
+				String fileName = arg.substring(LOG_FILE_OPTION.length());
+				if (table > 0) {
+					fileName += "." + (table + 1);
+				}
+				
+				try {
+					gameLog.spillTo(new File(fileName));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		//let's get the game started
+		Cribbage cribbage = new Cribbage(gameModel, decisionRunner,
+				DiscardOptimizer::bestDiscard, computerPegging);
+		gameModel.setCribbage(cribbage);
+		mainController.setCribbage(cribbage);
+		mainController.setGameModel(gameModel);
+		cribbage.start();
+	}
+	
+	/**
+	 * Logs the time to decode images loading in the background, begun at
+	 * beginTime, once the last has finished.
+	 */
+	private void timeDecoding(List<Image> images, long beginTime) {
+		
+		//images still decoding; the listeners run on this thread
+		int[] decoding = { 0 };
+		
+		for (Image image : images) {
+			if (image.getProgress() >= 1) continue;
+			
+			decoding[0]++;
+			image.progressProperty().addListener((observable, oldValue, newValue) -> {
+				if (newValue.doubleValue() >= 1 && --decoding[0] == 0) {
+					startupTimer.phaseDone("image decode", beginTime);
+				}
+			});
+		}
+		
+		if (decoding[0] == 0) {
+			startupTimer.phaseDone("image decode", beginTime);
+		}
+	}
+	
+	//returns the heap in use once garbage has been collected
+	private static long usedMemory() {
+		
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		System.gc();
+		
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	@Override
+	public void stop() {
+		for (GameLog gameLog : gameLogs) {
+			gameLog.close();
+		}
+	}
+	
 	public static void main(String[] args) {
 		launch(args);
 	}
@@ -3,17 +3,27 @@ package application;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 import application.Cribbage.GameState;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 
@@ -24,7 +34,7 @@ import javafx.scene.layout.GridPane;
 
 public class MainController extends GridPane {
 
-	//reference provided via setCribbage() method in Cribbage constructor
+	//reference provided via setCribbage() method by Main
 	private Cribbage cribbage;
 	
 	//create lists of cards to make it easier to update the views using loops
@@ -33,6 +43,19 @@ public class MainController extends GridPane {
 	private List<ImageView> peggingCardsView = new ArrayList<ImageView>();
 	private List<ImageView> cribCardsView = new ArrayList<ImageView>();
 	
+	//card images decoded at the size they're shown; set by loadCardImages()
+	private CardImages cardImages;
+	
+	//every card packed in one image, shown through each view's viewport; null
+	//if there's no atlas, in which case the separate images are shown
+	private CardAtlas cardAtlas;
+	
+	//what each view last showed: the card's index, FACE_DOWN or EMPTY, so
+	//only views whose card changed are touched
+	private static final int EMPTY = -1;
+	private static final int FACE_DOWN = IntDeck.SIZE;
+	private final Map<ImageView, Integer> shownCards = new HashMap<ImageView, Integer>();
+	
 	
     @FXML // ResourceBundle that was given to the FXMLLoader
     private ResourceBundle resources;
@@ -127,8 +150,8 @@ public class MainController extends GridPane {
     @FXML // fx:id="nextRoundButton"
     private Button nextRoundButton; // Value injected by FXMLLoader
     
-    @FXML // fx:id="textArea"
-    private TextArea textArea; // Value injected by FXMLLoader
+    @FXML // fx:id="logView"
+    private ListView<String> logView; // Value injected by FXMLLoader
     
     public MainController() {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("Main.fxml"));
@@ -170,6 +193,43 @@ public class MainController extends GridPane {
         cribCardsView.add(cribCard2);
         cribCardsView.add(cribCard3);
         cribCardsView.add(cribCard4);
+        
+        //wrap long log lines to the width of the log, as the text area did
+        logView.setCellFactory(view -> {
+        	ListCell<String> cell = new ListCell<String>() {
+        		@Override
+        		protected void updateItem(String line, boolean empty) {
+        			super.updateItem(line, empty);
+        			setText(empty ? null : line);
+        		}
+        	};
+        	cell.setWrapText(true);
+        	cell.setPrefWidth(0);
+        	return cell;
+        });
+    }
+    
+    /**
+     * Loads the card images; must be called before the game starts.  Cards
+     * whose images are still decoding in the background appear once they've
+     * been decoded.
+     * 
+     * @param background whether to decode the atlas in the background rather
+     *        than before returning
+     * @return the images being loaded: the atlas image, or if there's no
+     *         atlas the separate images, which always load in the background
+     */
+    List<Image> loadCardImages(boolean background) {
+    	
+        //every card is shown at the same size
+        cardImages = CardImages.atSize(playerCard1.getFitWidth(), playerCard1.getFitHeight());
+        cardAtlas = CardAtlas.load(background);
+        
+        if (cardAtlas == null) {
+        	return cardImages.preload();
+        }
+        
+        return Collections.singletonList(cardAtlas.getImage());
     }
     
     void setCribbage(Cribbage cribbage) {
@@ -177,78 +237,88 @@ public class MainController extends GridPane {
     }
     
     /**
-     * Updates the user display
+     * Binds the display to a game's model, so each view changes only when
+     * what it shows does.  Must be called before the game starts.
      */
-    void updateDisplay() {
+    void setGameModel(GameModel gameModel) {
     	
-    	//update computer hand
-    	Hand computerHand = cribbage.getComputerHand();
-    	for (int i=0; i < computerCardsView.size(); i++) {
-    		if (i < computerHand.size()) {
-    			computerCardsView.get(i).setImage(computerHand.peekAtCard(i).getImage());
-    		} else {
-    			
-    			computerCardsView.get(i).setImage(null);
-    		}
-    	}
+    	//cards
+    	bindCards(computerCardsView, gameModel.getComputerHand(), 
+    			gameModel.computerHandFaceUpProperty());
+    	bindCards(playerCardsView, gameModel.getPlayerHand(), 
+    			gameModel.playerHandFaceUpProperty());
+    	bindCards(peggingCardsView, gameModel.getPeggingCards(), null);
+    	bindCards(cribCardsView, gameModel.getCrib(), gameModel.cribFaceUpProperty());
     	
-    	//update player hand
-    	Hand playerHand = cribbage.getPlayerHand();
-    	for (int i=0; i < playerCardsView.size(); i++) {
-    		if (i < playerHand.size()) {
-    			playerCardsView.get(i).setImage(playerHand.peekAtCard(i).getImage());
-    		} else {
-    			playerCardsView.get(i).setImage(null);
-    		}
-    	}
+    	gameModel.cutCardProperty().addListener(
+    			(observable, oldCard, newCard) -> showCard(cutCard, newCard, true));
     	
-    	//update pegging cards
+    	//scores, with the dealer marked
+    	computerScoreLabel.textProperty().bind(Bindings.createStringBinding(
+    			() -> gameModel.computerScoreProperty().get() 
+    					+ (gameModel.playerDealerProperty().get() ? "" : " (dealer)"), 
+    			gameModel.computerScoreProperty(), gameModel.playerDealerProperty()));
+    	playerScoreLabel.textProperty().bind(Bindings.createStringBinding(
+    			() -> gameModel.playerScoreProperty().get() 
+    					+ (gameModel.playerDealerProperty().get() ? " (dealer)" : ""), 
+    			gameModel.playerScoreProperty(), gameModel.playerDealerProperty()));
+    	peggingScoreLabel.textProperty().bind(
+    			gameModel.peggingScoreProperty().asString());
     	
-    	PeggingCards peggingCards = cribbage.getPeggingCards();
-    	for (int i=0; i < peggingCardsView.size(); i++) {
-    		if (i < peggingCards.size()) {
-    			peggingCardsView.get(i).setImage(peggingCards.getCard(i).getImage());
-    		} else {
-    			peggingCardsView.get(i).setImage(null);
-    		}
-    	}    	
+    	//next round button
+    	nextRoundButton.disableProperty().bind(Bindings.createBooleanBinding(() -> {
+    		GameState gameState = gameModel.gameStateProperty().get();
+    		return gameState != GameState.PEGGING_WAITING_FOR_NEXT_ROUND &&
+    				gameState != GameState.COUNT_POINTS &&
+    				gameState != GameState.GAME_OVER;
+    	}, gameModel.gameStateProperty()));
     	
-    	//update crib
+    	//status text, kept scrolled to the latest line
+    	logView.setItems(gameModel.getLog());
+    	gameModel.getLog().addListener((ListChangeListener<String>) change -> 
+    			logView.scrollTo(change.getList().size() - 1));
+    }
+    
+    /**
+     * Shows cards in views, a card per view in order with the views left
+     * over cleared, whenever the cards or whether they're face up change.
+     * 
+     * @param faceUp whether the cards are face up, or null if always are
+     */
+    private void bindCards(List<ImageView> views, ObservableList<Card> cards, 
+    		ObservableBooleanValue faceUp) {
     	
-    	Hand crib= cribbage.getCrib();
-    	for (int i=0; i < cribCardsView.size(); i++) {
-    		if (i < crib.size()) {
-    			cribCardsView.get(i).setImage(crib.peekAtCard(i).getImage());
-    		} else {
-    			cribCardsView.get(i).setImage(null);
+    	InvalidationListener show = observable -> {
+    		for (int i=0; i < views.size(); i++) {
+    			showCard(views.get(i), i < cards.size() ? cards.get(i) : null, 
+    					faceUp == null || faceUp.get());
     		}
-    	}
+    	};
     	
-    	//update cut card
-    	if (cribbage.getCutCard() != null) {
-    		cutCard.setImage(cribbage.getCutCard().getImage());
-    	} else {
-    		cutCard.setImage(null);
+    	cards.addListener(show);
+    	if (faceUp != null) {
+    		faceUp.addListener(show);
     	}
+    }
+    
+    /**
+     * Shows a card in a view, face up or down, or clears the view if card is
+     * null.  With an atlas every view holds the same image and only its
+     * viewport changes.  Nothing is done if the view already shows it.
+     */
+    private void showCard(ImageView view, Card card, boolean faceUp) {
     	
-    	//update scores
-    	
-    	if (cribbage.isPlayerDealer()){
-    		computerScoreLabel.setText(Integer.toString(cribbage.getComputerScore()));
-    		playerScoreLabel.setText(Integer.toString(cribbage.getPlayerScore()) + " (dealer)");
-    	} else {
-    		computerScoreLabel.setText(Integer.toString(cribbage.getComputerScore()) + " (dealer)");
-    		playerScoreLabel.setText(Integer.toString(cribbage.getPlayerScore()));
-    	}
-    	peggingScoreLabel.setText(Integer.toString(cribbage.getPeggingScore()));
+    	int shown = card == null ? EMPTY : faceUp ? card.getIndex() : FACE_DOWN;
+    	Integer previous = shownCards.put(view, shown);
+    	if (previous != null && previous == shown) return;
     	
-    	//update next round button
-    	if (cribbage.getGameState() == GameState.PEGGING_WAITING_FOR_NEXT_ROUND ||
-    			cribbage.getGameState() == GameState.COUNT_POINTS ||
-    			cribbage.getGameState() == GameState.GAME_OVER) {
-    		nextRoundButton.setDisable(false);
+    	if (card == null) {
+    		view.setImage(null);
+    	} else if (cardAtlas != null) {
+    		view.setImage(cardAtlas.getImage());
+    		view.setViewport(cardAtlas.get(card, faceUp));
     	} else {
-    		nextRoundButton.setDisable(true);
+    		view.setImage(cardImages.get(card, faceUp));
     	}
     }
     
@@ -313,11 +383,6 @@ public class MainController extends GridPane {
     	handleUserInput(UserInput.getInstanceButtonAction());
     }
     
-    //add text to status area
-    void appendStatusText(String string) {
-    	textArea.appendText(string + '\n');
-    }
-    
     @FXML // This method is called by the FXMLLoader when initialization is complete
     void initialize() {
         assert cutCard != null : "fx:id=\"cutCard\" was not injected: check your FXML file 'Main.fxml'.";
@@ -347,7 +412,7 @@ public class MainController extends GridPane {
         assert cribCard1 != null : "fx:id=\"cribCard1\" was not injected: check your FXML file 'Main.fxml'.";
         assert cribCard2 != null : "fx:id=\"cribCard2\" was not injected: check your FXML file 'Main.fxml'.";
         assert cribCard3 != null : "fx:id=\"cribCard3\" was not injected: check your FXML file 'Main.fxml'.";
-        assert textArea != null : "fx:id=\"textArea\" was not injected: check your FXML file 'Main.fxml'.";
+        assert logView != null : "fx:id=\"logView\" was not injected: check your FXML file 'Main.fxml'.";
         assert peggingScoreLabel != null : "fx:id=\"peggingScoreLabel\" was not injected: check your FXML file 'Main.fxml'.";
         assert nextRoundButton != null : "fx:id=\"nextRoundButton\" was not injected: check your FXML file 'Main.fxml'.";
     }
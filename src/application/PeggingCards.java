@@ -17,6 +17,15 @@ public class PeggingCards {
 	
 	private int pointValue = 0;
 	
+	//ranks (1 for ace through 13 for king) of the cards in the stack, 4 bits
+	//per card with the most recently added card in the lowest 4 bits; used to
+	//score runs without re-examining the list of cards
+	private long rankHistory = 0;
+	
+	//number of cards at the end of the stack having the same rank as the most
+	//recently added card; used to score pairs
+	private int sameRankCount = 0;
+	
 	public PeggingCards() {
 		
 	}
@@ -42,16 +51,24 @@ public class PeggingCards {
 		//exceed 31), then return -1
 		if (!canAdd(card)) return -1;
 		
-		//mark card as face up
-		card.setFaceUp(true);
-		
 		//keep track of total point value of pegging cards
 		pointValue += card.getPointValue();
 		
 		//add card to pegging cards
 		cards.add(card);
 		
-		return Scoring.pointsFromPegging(cards);
+		//update the pair count and rank history, and score the card from them
+		int rank = card.getName().ordinal() + 1;
+		
+		if ((rankHistory & Scoring.PEG_RANK_MASK) == rank) {
+			sameRankCount++;
+		} else {
+			sameRankCount = 1;
+		}
+		
+		rankHistory = (rankHistory << Scoring.PEG_RANK_BITS) | rank;
+		
+		return Scoring.pointsFromPegging(rankHistory, sameRankCount, pointValue);
 	}
 	
 	Card getCard(int index) {
@@ -74,10 +91,20 @@ public class PeggingCards {
 		return pointValue;		
 	}
 	
+	/**
+	 * Returns the ranks of the cards in the stack, 4 bits per card with the most
+	 * recently added card in the lowest 4 bits.
+	 */
+	long getRankHistory() {
+		return rankHistory;
+	}
+	
 	//clears the cards and resets the pointValue to zero
 	void clear() {
 		cards.clear();
 		pointValue=0;
+		rankHistory=0;
+		sameRankCount=0;
 	}
 	
 	@Override
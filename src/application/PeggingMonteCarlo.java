@@ -0,0 +1,453 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Pegging strategy using information set Monte Carlo tree search (ISMCTS).
+ *
+ * The pegging player can't see the opponent's hand, so each iteration deals
+ * the opponent a hand sampled from the cards not yet seen, then walks a tree
+ * of the plays made by both players.  Only the plays legal in the sampled deal
+ * are considered, with UCB selection weighted by how often each play was
+ * available.  The sequence is finished with random plays and the net points
+ * (own points minus opponent points) are backed up the tree.
+ *
+ * Iterations run until the deadline or an iteration limit is reached, on
+ * several workers at once, each with its own tree, random
+ * number generator and preallocated node arrays, so playouts allocate nothing
+ * and workers share no mutable state.  The play visited most often across all
+ * workers is chosen.  States are packed into a long as described in
+ * PeggingState.
+ *
+ * The node arrays take about a megabyte per worker at the default size.
+ * Games played at once should each have their own smaller search, with fewer
+ * nodes and one worker, rather than share one: a search runs one decision at
+ * a time.
+ */
+
+public class PeggingMonteCarlo implements PeggingStrategy {
+
+	//default most iterations run by each worker per decision
+	public static final int DEFAULT_ITERATIONS = 20000;
+
+	//iterations run between checks of the deadline
+	private static final int ITERATIONS_PER_CHECK = 16;
+
+	//default maximum number of tree nodes held by each worker
+	public static final int DEFAULT_MAX_NODES = 1 << 15;
+
+	//exploration constant for UCB selection, in points
+	private static final double EXPLORATION = 3.0;
+
+	//maximum number of plays in the pegging, plus the root
+	private static final int MAX_DEPTH = 2 * PeggingState.HAND_SIZE + 1;
+
+	private final ExecutorService executor;
+	private final Worker[] workers;
+	private final List<Worker> workerList;
+
+	//scratch space for choosing a card: ranks of the unseen cards, and the
+	//visits to each rank played from the root, summed over the workers
+	private final int[] unseenRanks = new int[52];
+	private final long[] rankVisits = new long[Card.NAMES_PER_SUIT + 1];
+
+	/**
+	 * Creates a search with one worker per available processor, running on
+	 * the common fork-join pool.
+	 */
+	public PeggingMonteCarlo() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_ITERATIONS,
+				ForkJoinPool.commonPool(), new SplittableRandom());
+	}
+
+	/**
+	 * Creates a search.
+	 *
+	 * @param numWorkers number of workers, each building its own tree; with
+	 *        one worker the search runs on the calling thread
+	 * @param iterations most iterations run by each worker per decision
+	 * @param executor runs the workers when there is more than one
+	 * @param random split to give each worker its own generator
+	 */
+	public PeggingMonteCarlo(int numWorkers, int iterations, ExecutorService executor,
+			SplittableRandom random) {
+		this(numWorkers, iterations, executor, random, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates a search with trees of a given size.  Once a tree is full the
+	 * iterations go on refining the nodes it has.
+	 *
+	 * @param maxNodes most tree nodes held by each worker, about 29 bytes each
+	 */
+	public PeggingMonteCarlo(int numWorkers, int iterations, ExecutorService executor,
+			SplittableRandom random, int maxNodes) {
+
+		this.executor = executor;
+		this.workers = new Worker[numWorkers];
+
+		for (int i = 0; i < numWorkers; i++) {
+			workers[i] = new Worker(random.split(), iterations, maxNodes);
+		}
+
+		this.workerList = new ArrayList<Worker>(Arrays.asList(workers));
+	}
+
+	@Override
+	public Decision selectCard(Hand hand, PeggingCards peggingCards, long seenCards,
+			int opponentCardsLeft, boolean opponentPeggedLast, long deadline) {
+
+		long state = PeggingState.situation(hand, peggingCards, opponentPeggedLast);
+
+		//collect the ranks the opponent could be holding
+		int numUnseen = 0;
+		for (int card = 0; card < 52; card++) {
+			if ((seenCards & (1L << card)) == 0) {
+				unseenRanks[numUnseen++] = Scoring.rankOf(card) + 1;
+			}
+		}
+
+		for (Worker worker : workers) {
+			worker.prepare(state, unseenRanks, numUnseen,
+					Math.min(opponentCardsLeft, numUnseen), deadline);
+		}
+
+		runWorkers();
+
+		//add up the visits to each play from the root
+		Arrays.fill(rankVisits, 0);
+		int iterations = 0;
+		boolean complete = true;
+
+		for (Worker worker : workers) {
+			worker.addRootVisits(rankVisits);
+			iterations += worker.completed;
+			complete &= worker.completed == worker.iterations;
+		}
+
+		return new Decision(bestCard(hand, peggingCards), iterations, complete);
+	}
+
+	//runs the workers on the executor, or on this thread if there's only one
+	private void runWorkers() {
+
+		if (workers.length == 1) {
+			workers[0].call();
+			return;
+		}
+
+		try {
+			for (Future<Void> future : executor.invokeAll(workerList)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	//returns the index in hand of a playable card of the most visited rank
+	private int bestCard(Hand hand, PeggingCards peggingCards) {
+
+		int bestIndex = -1;
+		long bestVisits = -1;
+
+		for (int i = 0; i < hand.size(); i++) {
+			Card card = hand.peekAtCard(i);
+
+			if (!peggingCards.canAdd(card)) continue;
+
+			long visits = rankVisits[card.getName().ordinal() + 1];
+			if (visits > bestVisits) {
+				bestVisits = visits;
+				bestIndex = i;
+			}
+		}
+
+		return bestIndex;
+	}
+
+	/**
+	 * Runs iterations on its own tree.  Nodes are held in parallel arrays and
+	 * linked to their children through firstChild and nextSibling.  Node 0 is
+	 * the root.
+	 */
+	private static final class Worker implements Callable<Void> {
+
+		private final SplittableRandom random;
+		private final int iterations;
+
+		//rank played to reach each node, and whether the opponent played it
+		private final int[] rank;
+		private final boolean[] opponentPlayed;
+		private final int[] firstChild;
+		private final int[] nextSibling;
+
+		//times each node was selected and was available for selection, and
+		//the total net points for the player who played to reach it
+		private final int[] visits;
+		private final int[] availability;
+		private final double[] totalPoints;
+
+		private final int maxNodes;
+		private int numNodes;
+
+		//iterations run for the current decision
+		private int completed;
+
+		//nodes on the path walked by the current iteration
+		private final int[] path = new int[MAX_DEPTH];
+
+		//the situation being searched
+		private long rootState;
+		private final int[] unseenRanks = new int[52];
+		private int numUnseen;
+		private int opponentCards;
+		private long deadline;
+
+		Worker(SplittableRandom random, int iterations, int maxNodes) {
+			this.random = random;
+			this.iterations = iterations;
+			this.maxNodes = maxNodes;
+
+			rank = new int[maxNodes];
+			opponentPlayed = new boolean[maxNodes];
+			firstChild = new int[maxNodes];
+			nextSibling = new int[maxNodes];
+			visits = new int[maxNodes];
+			availability = new int[maxNodes];
+			totalPoints = new double[maxNodes];
+		}
+
+		//sets the situation to search and clears the tree
+		void prepare(long state, int[] unseen, int numUnseen, int opponentCards,
+				long deadline) {
+			this.rootState = state;
+			System.arraycopy(unseen, 0, this.unseenRanks, 0, numUnseen);
+			this.numUnseen = numUnseen;
+			this.opponentCards = opponentCards;
+			this.deadline = deadline;
+
+			numNodes = 1;
+			firstChild[0] = -1;
+			nextSibling[0] = -1;
+		}
+
+		@Override
+		public Void call() {
+			completed = 0;
+
+			while (completed < iterations) {
+				iterate();
+				completed++;
+
+				if (completed % ITERATIONS_PER_CHECK == 0 && Decision.isPast(deadline)) {
+					break;
+				}
+			}
+
+			return null;
+		}
+
+		//adds the visits of each of our plays from the root to rankVisits
+		void addRootVisits(long[] rankVisits) {
+			for (int child = firstChild[0]; child >= 0; child = nextSibling[child]) {
+				if (opponentPlayed[child]) continue;
+				rankVisits[rank[child]] += visits[child];
+			}
+		}
+
+		//runs one iteration: determinize, select, expand, play out, back up
+		private void iterate() {
+
+			long state = PeggingState.withOpponentHand(rootState, sampleHand());
+			int netPoints = 0;
+			int node = 0;
+			int depth = 0;
+			boolean inTree = true;
+
+			path[depth++] = node;
+
+			while (true) {
+
+				//resolve any go or end of the count until someone can play
+				boolean opponentToPlay = PeggingState.isOpponentToPlay(state);
+				int count = PeggingState.count(state);
+				int playerHand = PeggingState.hand(state, opponentToPlay);
+
+				if (!PeggingState.canPlay(playerHand, count)) {
+					int otherHand = PeggingState.hand(state, !opponentToPlay);
+
+					if (PeggingState.canPlay(otherHand, count)) {
+						state ^= PeggingState.OPPONENT_TO_PLAY;
+						continue;
+					}
+
+					netPoints += PeggingState.lastCardPoints(state);
+
+					if (playerHand == 0 && otherHand == 0) break;
+
+					state = PeggingState.reset(state, PeggingState.isOpponentPeggedLast(state));
+					continue;
+				}
+
+				int position;
+
+				if (inTree) {
+					node = selectChild(node, playerHand, count, opponentToPlay);
+
+					//stop walking the tree once a node is added or the tree is full
+					if (node < 0 || visits[node] == 0) {
+						inTree = false;
+					}
+
+					if (node >= 0) {
+						path[depth++] = node;
+						position = positionOf(playerHand, rank[node]);
+					} else {
+						position = randomPlay(playerHand, count);
+					}
+				} else {
+					position = randomPlay(playerHand, count);
+				}
+
+				int points = PeggingState.points(state, position);
+				netPoints += opponentToPlay ? -points : points;
+				state = PeggingState.play(state, position);
+			}
+
+			//back up the net points, from the view of the player who played
+			//to reach each node
+			for (int i = 1; i < depth; i++) {
+				int pathNode = path[i];
+				visits[pathNode]++;
+				totalPoints[pathNode] += opponentPlayed[pathNode] ? -netPoints : netPoints;
+			}
+		}
+
+		//returns the child of node for the mover's next play, adding a child
+		//for an untried legal rank when there is one; returns -1 if the tree
+		//is full
+		private int selectChild(int node, int playerHand, int count, boolean opponentToPlay) {
+
+			//bit r is set for each legal rank r
+			int legalRanks = 0;
+			for (int position = 0; position < PeggingState.HAND_SIZE; position++) {
+				int handRank = PeggingState.rankAt(playerHand, position);
+				if (handRank != 0 && PeggingState.canPlayRank(handRank, count)) {
+					legalRanks |= 1 << handRank;
+				}
+			}
+
+			int untriedRanks = legalRanks;
+			int bestChild = -1;
+			double bestScore = Double.NEGATIVE_INFINITY;
+
+			for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+
+				//a go depends on the sampled hand, so the same node can be
+				//reached with either player to play; children are plays by
+				//one player or the other, and only the mover's apply
+				if (opponentPlayed[child] != opponentToPlay) continue;
+				if ((legalRanks & (1 << rank[child])) == 0) continue;
+
+				untriedRanks &= ~(1 << rank[child]);
+				availability[child]++;
+
+				double score = totalPoints[child] / visits[child]
+						+ EXPLORATION * Math.sqrt(Math.log(availability[child]) / visits[child]);
+
+				if (score > bestScore) {
+					bestScore = score;
+					bestChild = child;
+				}
+			}
+
+			if (untriedRanks == 0) {
+				return bestChild;
+			}
+
+			if (numNodes == maxNodes) {
+				return -1;
+			}
+
+			//add a child for a random untried rank
+			int numUntried = Integer.bitCount(untriedRanks);
+			for (int skip = random.nextInt(numUntried); skip > 0; skip--) {
+				untriedRanks &= untriedRanks - 1;
+			}
+
+			int child = numNodes++;
+			rank[child] = Integer.numberOfTrailingZeros(untriedRanks);
+			opponentPlayed[child] = opponentToPlay;
+			firstChild[child] = -1;
+			nextSibling[child] = firstChild[node];
+			firstChild[node] = child;
+			visits[child] = 0;
+			availability[child] = 1;
+			totalPoints[child] = 0;
+
+			return child;
+		}
+
+		//returns the position of a rank in a hand
+		private static int positionOf(int hand, int handRank) {
+
+			int position = 0;
+			while (PeggingState.rankAt(hand, position) != handRank) {
+				position++;
+			}
+
+			return position;
+		}
+
+		//returns the position of a random legal card in a hand
+		private int randomPlay(int hand, int count) {
+
+			int numLegal = 0;
+			for (int position = 0; position < PeggingState.HAND_SIZE; position++) {
+				int handRank = PeggingState.rankAt(hand, position);
+				if (handRank != 0 && PeggingState.canPlayRank(handRank, count)) {
+					numLegal++;
+				}
+			}
+
+			int choice = random.nextInt(numLegal);
+
+			for (int position = 0; ; position++) {
+				int handRank = PeggingState.rankAt(hand, position);
+				if (handRank != 0 && PeggingState.canPlayRank(handRank, count)
+						&& choice-- == 0) {
+					return position;
+				}
+			}
+		}
+
+		//draws the opponent's hand at random from the unseen ranks
+		private int sampleHand() {
+
+			int hand = 0;
+
+			//partial Fisher-Yates shuffle of the unseen ranks
+			for (int i = 0; i < opponentCards; i++) {
+				int j = i + random.nextInt(numUnseen - i);
+				int sampledRank = unseenRanks[j];
+				unseenRanks[j] = unseenRanks[i];
+				unseenRanks[i] = sampledRank;
+
+				hand = PeggingState.addRank(hand, sampledRank);
+			}
+
+			return hand;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package application;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Pegging strategy that searches the rest of the pegging sequence.
+ *
+ * The opponent's hand is unknown, so it is sampled from the cards not yet seen
+ * and, for each sample, the pegging is solved exactly by minimax on the net 
+ * points (own points minus opponent points) still to be pegged.  The card with
+ * the best total over the samples solved before the deadline is played.
+ *
+ * States are packed into a long as described in PeggingState.  The search 
+ * uses alpha-beta pruning, and solved states are memoized in a fixed-size 
+ * TranspositionTable along with whether the value is exact or a bound.  The 
+ * table stays valid across samples and decisions since a state's value never
+ * changes.  Instances are not thread safe.
+ */
+
+public class PeggingSearch implements PeggingStrategy {
+
+	//most opponent hands sampled per decision
+	public static final int DEFAULT_SAMPLES = 32;
+
+	//the transposition table has 2^DEFAULT_TABLE_BITS slots
+	public static final int DEFAULT_TABLE_BITS = 18;
+
+	//larger than any net points from pegging
+	private static final int INFINITY = 1000;
+	
+	//flags stored with values in the transposition table
+	private static final int EXACT = 0;
+	private static final int LOWER_BOUND = 1;
+	private static final int UPPER_BOUND = 2;
+
+	private final TranspositionTable table;
+	private final SplittableRandom random;
+	private final int numSamples;
+
+	//scratch space for choosing a card: ranks of the unseen cards, and the
+	//total value over the samples of playing each rank
+	private final int[] unseenRanks = new int[52];
+	private final long[] rankValues = new long[Card.NAMES_PER_SUIT + 1];
+
+	/**
+	 * Creates a search with the default number of samples and table size.
+	 */
+	public PeggingSearch() {
+		this(DEFAULT_SAMPLES, DEFAULT_TABLE_BITS, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a search.
+	 * 
+	 * @param numSamples most opponent hands sampled per decision
+	 * @param tableBits the transposition table has 2^tableBits slots
+	 * @param random source of the opponent hand samples
+	 */
+	public PeggingSearch(int numSamples, int tableBits, SplittableRandom random) {
+		this.numSamples = numSamples;
+		this.table = new TranspositionTable(tableBits);
+		this.random = random;
+	}
+
+	@Override
+	public Decision selectCard(Hand hand, PeggingCards peggingCards, long seenCards,
+			int opponentCardsLeft, boolean opponentPeggedLast, long deadline) {
+
+		long state = PeggingState.situation(hand, peggingCards, opponentPeggedLast);
+
+		//collect the ranks the opponent could be holding
+		int numUnseen = 0;
+		for (int card = 0; card < 52; card++) {
+			if ((seenCards & (1L << card)) == 0) {
+				unseenRanks[numUnseen++] = Scoring.rankOf(card) + 1;
+			}
+		}
+
+		Arrays.fill(rankValues, 0);
+
+		int samples = opponentCardsLeft == 0 ? 1 : numSamples;
+		opponentCardsLeft = Math.min(opponentCardsLeft, numUnseen);
+
+		//always solve at least one sample, even if out of time
+		int solved = 0;
+		while (solved < samples && (solved == 0 || !Decision.isPast(deadline))) {
+			addMoveValues(PeggingState.withOpponentHand(state, 
+					sampleHand(numUnseen, opponentCardsLeft)));
+			solved++;
+		}
+
+		return new Decision(bestCard(hand, peggingCards), solved, solved == samples);
+	}
+
+	/**
+	 * Returns the net points still to be pegged from a state, with both hands
+	 * known, assuming best play by both players.
+	 */
+	int value(long state) {
+		return value(state, -INFINITY, INFINITY);
+	}
+	
+	/**
+	 * Alpha-beta version of value(long).  The exact value is returned when it
+	 * lies between alpha and beta; otherwise the result is only a bound: at
+	 * most alpha or at least beta.
+	 */
+	private int value(long state, int alpha, int beta) {
+
+		boolean opponentToPlay = PeggingState.isOpponentToPlay(state);
+		int count = PeggingState.count(state);
+		int playerHand = PeggingState.hand(state, opponentToPlay);
+
+		if (!PeggingState.canPlay(playerHand, count)) {
+
+			int otherHand = PeggingState.hand(state, !opponentToPlay);
+
+			//go; the other player keeps playing
+			if (PeggingState.canPlay(otherHand, count)) {
+				return value(state ^ PeggingState.OPPONENT_TO_PLAY, alpha, beta);
+			}
+
+			//neither player can play, so the last card pegs 1 point
+			int points = PeggingState.lastCardPoints(state);
+
+			if (playerHand == 0 && otherHand == 0) {
+				return points;
+			}
+
+			long next = PeggingState.reset(state, PeggingState.isOpponentPeggedLast(state));
+			return points + value(next, alpha - points, beta - points);
+		}
+
+		//stored values are packed with a flag telling whether they are exact
+		//or a bound
+		int stored = table.get(state);
+		if (stored != TranspositionTable.MISSING) {
+			int storedValue = stored >> 2;
+			int flag = stored & 3;
+			
+			if (flag == EXACT 
+					|| (flag == LOWER_BOUND && storedValue >= beta)
+					|| (flag == UPPER_BOUND && storedValue <= alpha)) {
+				return storedValue;
+			}
+		}
+		
+		int originalAlpha = alpha;
+		int originalBeta = beta;
+
+		int best = opponentToPlay ? INFINITY : -INFINITY;
+		int previousRank = 0;
+
+		for (int position = 0; position < PeggingState.HAND_SIZE; position++) {
+
+			int rank = PeggingState.rankAt(playerHand, position);
+
+			//ranks are in descending order, with empty positions last
+			if (rank == 0) break;
+
+			//playing either of 2 cards of the same rank leads to the same state
+			if (rank == previousRank) continue;
+			previousRank = rank;
+
+			if (!PeggingState.canPlayRank(rank, count)) continue;
+
+			int value = moveValue(state, position, alpha, beta);
+
+			if (opponentToPlay) {
+				best = Math.min(best, value);
+				beta = Math.min(beta, best);
+			} else {
+				best = Math.max(best, value);
+				alpha = Math.max(alpha, best);
+			}
+			
+			if (alpha >= beta) break;
+		}
+
+		int flag = EXACT;
+		if (best <= originalAlpha) {
+			flag = UPPER_BOUND;
+		} else if (best >= originalBeta) {
+			flag = LOWER_BOUND;
+		}
+		
+		table.put(state, (best << 2) | flag);
+
+		return best;
+	}
+
+	/**
+	 * Returns the net points from the player to play pegging the card at 
+	 * position in its hand, followed by best play by both players.
+	 */
+	private int moveValue(long state, int position, int alpha, int beta) {
+
+		int points = PeggingState.points(state, position);
+		int netPoints = PeggingState.isOpponentToPlay(state) ? -points : points;
+		long child = PeggingState.play(state, position);
+		
+		return netPoints + value(child, alpha - netPoints, beta - netPoints);
+	}
+
+	//draws numCards of the unseen ranks at random into a hand
+	private int sampleHand(int numUnseen, int numCards) {
+
+		int hand = 0;
+
+		//partial Fisher-Yates shuffle of the unseen ranks
+		for (int i = 0; i < numCards; i++) {
+			int j = i + random.nextInt(numUnseen - i);
+			int rank = unseenRanks[j];
+			unseenRanks[j] = unseenRanks[i];
+			unseenRanks[i] = rank;
+
+			hand = PeggingState.addRank(hand, rank);
+		}
+
+		return hand;
+	}
+
+	//adds the value of each playable rank in a sampled state to rankValues
+	private void addMoveValues(long state) {
+
+		int count = PeggingState.count(state);
+		int playerHand = PeggingState.hand(state, false);
+		int previousRank = 0;
+
+		for (int position = 0; position < PeggingState.HAND_SIZE; position++) {
+
+			int rank = PeggingState.rankAt(playerHand, position);
+			if (rank == 0) break;
+			if (rank == previousRank) continue;
+			previousRank = rank;
+
+			if (PeggingState.canPlayRank(rank, count)) {
+				rankValues[rank] += moveValue(state, position, -INFINITY, INFINITY);
+			}
+		}
+	}
+
+	//returns the index in hand of a playable card of the rank with the best 
+	//total value
+	private int bestCard(Hand hand, PeggingCards peggingCards) {
+
+		int bestIndex = -1;
+		long bestValue = Long.MIN_VALUE;
+
+		for (int i = 0; i < hand.size(); i++) {
+			Card card = hand.peekAtCard(i);
+
+			if (!peggingCards.canAdd(card)) continue;
+
+			long value = rankValues[card.getName().ordinal() + 1];
+			if (value > bestValue) {
+				bestValue = value;
+				bestIndex = i;
+			}
+		}
+
+		return bestIndex;
+	}
+}
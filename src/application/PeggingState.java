@@ -0,0 +1,214 @@
+package application;
+
+/**
+ * Class includes static methods for pegging states packed into a long, as
+ * used by the pegging strategies.  Pegging only depends on ranks, so the 
+ * state of the pegging between 2 players fits in 63 bits:
+ * <pre>
+ * bits  0-15  own hand, 4 bits per rank (1 for ace through 13 for king) in 
+ *             descending order, 0 for no card
+ * bits 16-31  opponent's hand, the same way
+ * bits 32-55  ranks of the last 6 cards since the count was reset, most 
+ *             recent in the lowest 4 bits; enough to score any pair or run
+ * bits 56-60  the count
+ * bit  61     set when the opponent is to play
+ * bit  62     set when the opponent pegged the most recent card
+ * </pre>
+ * Points are "net": own points minus opponent points.
+ */
+
+final class PeggingState {
+
+	//number of cards held for pegging
+	static final int HAND_SIZE = 4;
+
+	//layout of a state
+	static final int RANK_BITS = 4;
+	static final int RANK_MASK = 0xF;
+	static final int HAND_MASK = 0xFFFF;
+	static final int OPPONENT_HAND_SHIFT = 16;
+	static final int WINDOW_SHIFT = 32;
+	static final long WINDOW_MASK = 0xFFFFFFL;
+	static final int COUNT_SHIFT = 56;
+	static final long COUNT_MASK = 0x1F;
+	static final long OPPONENT_TO_PLAY = 1L << 61;
+	static final long OPPONENT_PEGGED_LAST = 1L << 62;
+
+	//private constructor so class can't be instantiated
+	private PeggingState() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Packs the pegging player's hand and the pegging cards into a state with
+	 * the pegging player to play and an empty opponent's hand.
+	 */
+	static long situation(Hand hand, PeggingCards peggingCards, boolean opponentPeggedLast) {
+
+		int ranks = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			ranks = addRank(ranks, hand.peekAtCard(i).getName().ordinal() + 1);
+		}
+
+		return ranks
+				| ((peggingCards.getRankHistory() & WINDOW_MASK) << WINDOW_SHIFT)
+				| ((long) peggingCards.getPointValue() << COUNT_SHIFT)
+				| (opponentPeggedLast ? OPPONENT_PEGGED_LAST : 0);
+	}
+
+	/**
+	 * Returns a state with the opponent's hand replaced.
+	 */
+	static long withOpponentHand(long state, int opponentHand) {
+		return (state & ~((long) HAND_MASK << OPPONENT_HAND_SHIFT))
+				| ((long) opponentHand << OPPONENT_HAND_SHIFT);
+	}
+
+	/**
+	 * Adds a rank (1 for ace through 13 for king) to a hand of ranks in 
+	 * descending order.
+	 */
+	static int addRank(int hand, int rank) {
+
+		int position = 0;
+		while (position < HAND_SIZE && rankAt(hand, position) >= rank) {
+			position++;
+		}
+
+		int lowerRanks = hand & ((1 << (position * RANK_BITS)) - 1);
+		int higherRanks = hand >>> (position * RANK_BITS);
+
+		return (lowerRanks | (rank << (position * RANK_BITS)) 
+				| (higherRanks << ((position + 1) * RANK_BITS))) & HAND_MASK;
+	}
+
+	/**
+	 * Returns the rank at a position in a hand, or 0 if there is no card.
+	 */
+	static int rankAt(int hand, int position) {
+		return (hand >>> (position * RANK_BITS)) & RANK_MASK;
+	}
+
+	static boolean isOpponentToPlay(long state) {
+		return (state & OPPONENT_TO_PLAY) != 0;
+	}
+
+	static boolean isOpponentPeggedLast(long state) {
+		return (state & OPPONENT_PEGGED_LAST) != 0;
+	}
+
+	static int count(long state) {
+		return (int) ((state >>> COUNT_SHIFT) & COUNT_MASK);
+	}
+
+	/**
+	 * Returns the opponent's hand or own hand from a state.
+	 */
+	static int hand(long state, boolean opponent) {
+		return (int) (state >>> (opponent ? OPPONENT_HAND_SHIFT : 0)) & HAND_MASK;
+	}
+
+	/**
+	 * Returns true if a rank can be played without exceeding 31.
+	 */
+	static boolean canPlayRank(int rank, int count) {
+		return count + Scoring.pointValueOfRank(rank - 1) <= PeggingCards.MAX_PEG_VALUE;
+	}
+
+	/**
+	 * Returns true if a card in hand can be played without exceeding 31.
+	 */
+	static boolean canPlay(int hand, int count) {
+
+		//the lowest rank is in the last non-empty position
+		for (int position = HAND_SIZE - 1; position >= 0; position--) {
+			int rank = rankAt(hand, position);
+			if (rank != 0) {
+				return canPlayRank(rank, count);
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the points, for whoever plays it, of playing the card at a 
+	 * position in the hand of the player to play.
+	 */
+	static int points(long state, int position) {
+
+		int rank = rankAt(hand(state, isOpponentToPlay(state)), position);
+		int newCount = count(state) + Scoring.pointValueOfRank(rank - 1);
+		long history = history(state, rank);
+
+		int sameRankCount = 1;
+		while (sameRankCount < 4 
+				&& ((history >>> (sameRankCount * RANK_BITS)) & RANK_MASK) == rank) {
+			sameRankCount++;
+		}
+
+		return Scoring.pointsFromPegging(history, sameRankCount, newCount);
+	}
+
+	/**
+	 * Returns the state after the player to play plays the card at a position
+	 * in its hand.  A count of 31 is reset immediately.
+	 */
+	static long play(long state, int position) {
+
+		boolean opponentToPlay = isOpponentToPlay(state);
+		int playerHand = hand(state, opponentToPlay);
+		int rank = rankAt(playerHand, position);
+		int newCount = count(state) + Scoring.pointValueOfRank(rank - 1);
+
+		//remove the card from the hand, keeping the ranks in order
+		int lowerRanks = playerHand & ((1 << (position * RANK_BITS)) - 1);
+		int higherRanks = playerHand >>> ((position + 1) * RANK_BITS);
+		int newHand = lowerRanks | (higherRanks << (position * RANK_BITS));
+
+		int handShift = opponentToPlay ? OPPONENT_HAND_SHIFT : 0;
+		long child = (state & ~((long) HAND_MASK << handShift)) | ((long) newHand << handShift);
+
+		if (newCount == PeggingCards.MAX_PEG_VALUE) {
+			return reset(child, opponentToPlay);
+		}
+
+		//the other player plays next
+		child &= ~((WINDOW_MASK << WINDOW_SHIFT) | (COUNT_MASK << COUNT_SHIFT)
+				| OPPONENT_TO_PLAY | OPPONENT_PEGGED_LAST);
+
+		return child 
+				| ((history(state, rank) & WINDOW_MASK) << WINDOW_SHIFT)
+				| ((long) newCount << COUNT_SHIFT)
+				| (opponentToPlay ? OPPONENT_PEGGED_LAST : OPPONENT_TO_PLAY);
+	}
+
+	/**
+	 * Returns the net points for the last card, pegged when neither player can
+	 * play.  There's no point after a 31, which has already reset the count.
+	 */
+	static int lastCardPoints(long state) {
+
+		if (count(state) == 0) {
+			return 0;
+		}
+
+		return isOpponentPeggedLast(state) ? -1 : 1;
+	}
+
+	/**
+	 * Returns the state with the count reset after a go or 31; the player who
+	 * didn't peg last plays next.
+	 */
+	static long reset(long state, boolean opponentPeggedLast) {
+
+		long hands = state & (((long) HAND_MASK << OPPONENT_HAND_SHIFT) | HAND_MASK);
+
+		return hands | (opponentPeggedLast ? 0 : OPPONENT_TO_PLAY);
+	}
+
+	//returns the ranks played since the reset with rank added
+	private static long history(long state, int rank) {
+		return (((state >>> WINDOW_SHIFT) & WINDOW_MASK) << RANK_BITS) | rank;
+	}
+}
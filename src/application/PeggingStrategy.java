@@ -0,0 +1,28 @@
+package application;
+
+/**
+ * Chooses which card to peg.
+ */
+
+public interface PeggingStrategy {
+
+	/**
+	 * Chooses the card to peg, searching no longer than the deadline allows.
+	 * Only called when at least one card in hand can be added to the pegging
+	 * cards.  The hand and pegging cards may be read from another thread, but
+	 * aren't changed until the decision is returned.
+	 * 
+	 * @param hand cards remaining in the pegging player's hand
+	 * @param peggingCards cards pegged since the count was last reset
+	 * @param seenCards bit mask, indexed by Card.getIndex(), of every card the
+	 *        pegging player has seen: its own 6 cards, the cut card and the 
+	 *        cards pegged by the opponent
+	 * @param opponentCardsLeft number of cards remaining in the opponent's hand
+	 * @param opponentPeggedLast true if the opponent pegged the most recent card
+	 * @param deadline System.nanoTime() value at which to stop searching;
+	 *        Long.MAX_VALUE to search until finished
+	 * @return decision whose choice is the index within hand of the card to peg
+	 */
+	Decision selectCard(Hand hand, PeggingCards peggingCards, long seenCards,
+			int opponentCardsLeft, boolean opponentPeggedLast, long deadline);
+}
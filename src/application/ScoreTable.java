@@ -0,0 +1,135 @@
+package application;
+
+/**
+ * Class includes static methods for table-driven scoring of int-encoded cards.
+ *
+ * Fifteens, pairs and runs depend only on the 5 ranks of a hand plus cut card,
+ * so they are precomputed for every multiset of 5 ranks. Scoring a hand is
+ * then a single array read, with flush and nobs added at lookup time.
+ */
+
+public final class ScoreTable {
+
+	//number of multisets of 5 ranks drawn from 13 ranks: C(13 + 5 - 1, 5)
+	public static final int SIZE = 6188;
+
+	//POSITION_WEIGHT[position * 13 + rank] holds C(rank + position, position + 1),
+	//the contribution of the sorted rank at position to the table index
+	private static final int[] POSITION_WEIGHT = buildPositionWeights();
+
+	//points from fifteens, pairs and runs for each multiset of 5 ranks
+	private static final byte[] RANK_SCORES = buildRankScores();
+
+	//private constructor so class can't be instantiated
+	private ScoreTable() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Returns the points in a hand of int-encoded cards.
+	 */
+	public static int pointsInHand(int card0, int card1, int card2, int card3, int cutCard) {
+		return calculatePoints(card0, card1, card2, card3, cutCard, false);
+	}
+
+	/**
+	 * Returns the points in a crib of int-encoded cards.
+	 */
+	public static int pointsInCrib(int card0, int card1, int card2, int card3, int cutCard) {
+		return calculatePoints(card0, card1, card2, card3, cutCard, true);
+	}
+
+	private static int calculatePoints(int card0, int card1, int card2, int card3,
+			int cutCard, boolean isCrib) {
+
+		return rankScore(Scoring.rankOf(card0), Scoring.rankOf(card1),
+						Scoring.rankOf(card2), Scoring.rankOf(card3),
+						Scoring.rankOf(cutCard))
+				+ Scoring.scoreNobs(card0, card1, card2, card3, cutCard)
+				+ Scoring.scoreFlush(card0, card1, card2, card3, cutCard, isCrib);
+	}
+
+	/**
+	 * Returns the points for fifteens, pairs and runs in 5 cards given by rank
+	 * (0 for ace through 12 for king), in any order.
+	 */
+	static int rankScore(int rank0, int rank1, int rank2, int rank3, int rank4) {
+		return RANK_SCORES[index(rank0, rank1, rank2, rank3, rank4)];
+	}
+
+	/**
+	 * Returns the table index of 5 ranks, in any order.  The index is a minimal
+	 * perfect hash of the rank counts: the ranks are sorted and then numbered
+	 * using the combinatorial number system, giving each multiset a unique
+	 * index from 0 to SIZE - 1.
+	 */
+	static int index(int rank0, int rank1, int rank2, int rank3, int rank4) {
+
+		//sort the ranks using a 9 comparator sorting network
+		int tmp;
+		if (rank0 > rank1) { tmp = rank0; rank0 = rank1; rank1 = tmp; }
+		if (rank3 > rank4) { tmp = rank3; rank3 = rank4; rank4 = tmp; }
+		if (rank2 > rank4) { tmp = rank2; rank2 = rank4; rank4 = tmp; }
+		if (rank2 > rank3) { tmp = rank2; rank2 = rank3; rank3 = tmp; }
+		if (rank0 > rank3) { tmp = rank0; rank0 = rank3; rank3 = tmp; }
+		if (rank0 > rank2) { tmp = rank0; rank0 = rank2; rank2 = tmp; }
+		if (rank1 > rank4) { tmp = rank1; rank1 = rank4; rank4 = tmp; }
+		if (rank1 > rank3) { tmp = rank1; rank1 = rank3; rank3 = tmp; }
+		if (rank1 > rank2) { tmp = rank1; rank1 = rank2; rank2 = tmp; }
+
+		return POSITION_WEIGHT[rank0]
+				+ POSITION_WEIGHT[Card.NAMES_PER_SUIT + rank1]
+				+ POSITION_WEIGHT[2 * Card.NAMES_PER_SUIT + rank2]
+				+ POSITION_WEIGHT[3 * Card.NAMES_PER_SUIT + rank3]
+				+ POSITION_WEIGHT[4 * Card.NAMES_PER_SUIT + rank4];
+	}
+
+	//creates the weights used by index()
+	private static int[] buildPositionWeights() {
+
+		int[] weights = new int[5 * Card.NAMES_PER_SUIT];
+
+		for (int position = 0; position < 5; position++) {
+			for (int rank = 0; rank < Card.NAMES_PER_SUIT; rank++) {
+				weights[position * Card.NAMES_PER_SUIT + rank] =
+						binomial(rank + position, position + 1);
+			}
+		}
+
+		return weights;
+	}
+
+	//returns n choose k
+	private static int binomial(int n, int k) {
+
+		if (k > n) return 0;
+
+		int result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+
+		return result;
+	}
+
+	//scores every multiset of 5 ranks
+	private static byte[] buildRankScores() {
+
+		byte[] scores = new byte[SIZE];
+
+		for (int rank0 = 0; rank0 < Card.NAMES_PER_SUIT; rank0++) {
+			for (int rank1 = rank0; rank1 < Card.NAMES_PER_SUIT; rank1++) {
+				for (int rank2 = rank1; rank2 < Card.NAMES_PER_SUIT; rank2++) {
+					for (int rank3 = rank2; rank3 < Card.NAMES_PER_SUIT; rank3++) {
+						for (int rank4 = rank3; rank4 < Card.NAMES_PER_SUIT; rank4++) {
+							scores[index(rank0, rank1, rank2, rank3, rank4)] = (byte)
+									Scoring.scoreRanks(rank0, rank1, rank2, rank3, rank4);
+						}
+					}
+				}
+			}
+		}
+
+		return scores;
+	}
+}
@@ -99,7 +99,7 @@ public final class Scoring {
 				} 
 			}
 			
-			if (runSize > 0) System.out.println("Pegging points from run: " + runSize + tmpList.toString());
+			//if (runSize > 0) System.out.println("Pegging points from run: " + runSize + tmpList.toString());
 			
 			points += runSize;
 		}
@@ -107,6 +107,77 @@ public final class Scoring {
 		return points;
 	}
 	
+	//number of bits and mask for each rank in a pegging rank history
+	static final int PEG_RANK_BITS = 4;
+	static final long PEG_RANK_MASK = 0xF;
+	
+	/**
+	 * Returns the points scored by the most recently played pegging card, using
+	 * the incremental state kept by PeggingCards rather than the list of cards.
+	 * Gives the same result as pointsFromPegging(List) without allocating.
+	 * 
+	 * @param rankHistory ranks (1 for ace through 13 for king) of the cards 
+	 *        played since the count was reset, 4 bits per card with the most
+	 *        recently played card in the lowest 4 bits
+	 * @param sameRankCount number of cards at the end of the stack having the
+	 *        same rank as the most recently played card, including that card
+	 * @param count total point value of the cards, including the played card
+	 * @return points pegged by the most recently played card
+	 */
+	static int pointsFromPegging(long rankHistory, int sameRankCount, int count) {
+		
+		int points = 0;
+		
+		//check for 15 or 31 total
+		if (count == 15 || count == 31) {
+			points += 2;
+		}
+		
+		//2, 3 or 4 of a kind score 2, 6 or 12 points
+		points += sameRankCount * (sameRankCount - 1);
+		
+		points += pegRunLength(rankHistory);
+		
+		return points;
+	}
+	
+	/**
+	 * Returns the length of the longest run of at least 3 cards formed by the
+	 * most recently played cards, or 0 if there is no run.
+	 * 
+	 * @param rankHistory ranks of the played cards as described for 
+	 *        pointsFromPegging(long, int, int)
+	 */
+	static int pegRunLength(long rankHistory) {
+		
+		int runLength = 0;
+		
+		//bit n of rankMask is set when a card of rank n is among the most 
+		//recently played numCards cards
+		int rankMask = 0;
+		
+		for (int numCards = 1; rankHistory != 0; numCards++) {
+			
+			int rankBit = 1 << (int) (rankHistory & PEG_RANK_MASK);
+			
+			//a repeated rank can't be part of a run, and neither can any 
+			//longer sequence of cards containing it
+			if ((rankMask & rankBit) != 0) break;
+			
+			rankMask |= rankBit;
+			
+			//the cards are a run when the bits of rankMask are contiguous
+			int shifted = rankMask >>> Integer.numberOfTrailingZeros(rankMask);
+			if (numCards >= 3 && (shifted & (shifted + 1)) == 0) {
+				runLength = numCards;
+			}
+			
+			rankHistory >>>= PEG_RANK_BITS;
+		}
+		
+		return runLength;
+	}
+	
 	/**
 	 * Method determines whether the list of cards consists solely of a single run
 	 * of at least 3 cards. WARNING:  The list of cards passed in will be sorted
@@ -199,9 +270,9 @@ public final class Scoring {
 		
 		int points = scoreNobs + scoreFlush + scoreFifteens + scorePairs + scoreRuns;
 		
-		System.out.println("Scored " + points + " points (Nobs=" + scoreNobs + 
-			" Flush=" + scoreFlush + " Fifteens=" + scoreFifteens + 
-			" Pairs=" + scorePairs + " Runs=" + scoreRuns + ")");
+		//System.out.println("Scored " + points + " points (Nobs=" + scoreNobs + 
+		//	" Flush=" + scoreFlush + " Fifteens=" + scoreFifteens + 
+		//	" Pairs=" + scorePairs + " Runs=" + scoreRuns + ")");
 		
 		return points;
 	}
@@ -376,7 +447,8 @@ public final class Scoring {
 		int score = 0;
 		int numMatches = duplicates.size();
 		
-		assert numMatches >= 0 && numMatches <= 2 : "Invalid value of numDups (" + numMatches + "); should be between 0 and 2.";
+		//4 of a kind gives 3 duplicates, but then there are only 2 ranks and no run
+		assert numMatches >= 0 && (numMatches <= 2 || runLength < 3) : "Invalid value of numDups (" + numMatches + ") for a run of " + runLength + "; should be between 0 and 2.";
 		
 		//runLength is 5
 		if (runLength == 5) {
@@ -428,6 +500,207 @@ public final class Scoring {
 	}
 	
 
+	/*
+	 * Allocation-free scoring of int-encoded cards.  Each card is an int from 0
+	 * to 51 as returned by Card.getIndex(): suit.ordinal() * 13 + name.ordinal().
+	 * These methods produce the same scores as pointsInHand(List, Card) and 
+	 * pointsInCrib(List, Card), but never copy, sort or print, so they can be 
+	 * called millions of times per second for analysis.
+	 */
+	
+	//index of the jack within a suit, for scoring nobs
+	private static final int JACK_RANK = Card.Name.JACK.ordinal();
+	
+	//number of bits used for each card in a packed hand
+	private static final int PACKED_CARD_BITS = 8;
+	private static final long PACKED_CARD_MASK = 0xFF;
+	
+	/**
+	 * Returns the rank (0 for ace through 12 for king) of an int-encoded card.
+	 */
+	static int rankOf(int card) {
+		return card % Card.NAMES_PER_SUIT;
+	}
+	
+	/**
+	 * Returns the suit ordinal of an int-encoded card.
+	 */
+	static int suitOf(int card) {
+		return card / Card.NAMES_PER_SUIT;
+	}
+	
+	/**
+	 * Returns the pegging point value of a rank (0 for ace through 12 for king).
+	 */
+	static int pointValueOfRank(int rank) {
+		return rank < 9 ? rank + 1 : 10;
+	}
+	
+	/**
+	 * Packs a 4 card hand and cut card into a long, 8 bits per card, with the
+	 * cut card held in the highest of the 5 bytes.
+	 */
+	public static long packHand(int card0, int card1, int card2, int card3, int cutCard) {
+		return card0 
+				| ((long) card1 << PACKED_CARD_BITS) 
+				| ((long) card2 << (2 * PACKED_CARD_BITS)) 
+				| ((long) card3 << (3 * PACKED_CARD_BITS)) 
+				| ((long) cutCard << (4 * PACKED_CARD_BITS));
+	}
+	
+	/**
+	 * Returns the points in a hand of int-encoded cards.
+	 */
+	public static int pointsInHand(int card0, int card1, int card2, int card3, int cutCard) {
+		return calculatePoints(card0, card1, card2, card3, cutCard, false);
+	}
+	
+	/**
+	 * Returns the points in a crib of int-encoded cards.
+	 */
+	public static int pointsInCrib(int card0, int card1, int card2, int card3, int cutCard) {
+		return calculatePoints(card0, card1, card2, card3, cutCard, true);
+	}
+	
+	/**
+	 * Returns the points in a hand packed by packHand().
+	 */
+	public static int pointsInHand(long packedHand) {
+		return calculatePoints(packedHand, false);
+	}
+	
+	/**
+	 * Returns the points in a crib packed by packHand().
+	 */
+	public static int pointsInCrib(long packedHand) {
+		return calculatePoints(packedHand, true);
+	}
+	
+	private static int calculatePoints(long packedHand, boolean isCrib) {
+		return calculatePoints(
+				(int) (packedHand & PACKED_CARD_MASK),
+				(int) ((packedHand >>> PACKED_CARD_BITS) & PACKED_CARD_MASK),
+				(int) ((packedHand >>> (2 * PACKED_CARD_BITS)) & PACKED_CARD_MASK),
+				(int) ((packedHand >>> (3 * PACKED_CARD_BITS)) & PACKED_CARD_MASK),
+				(int) ((packedHand >>> (4 * PACKED_CARD_BITS)) & PACKED_CARD_MASK),
+				isCrib);
+	}
+	
+	/**
+	 * Helper method to calculate the points in a hand or crib of int-encoded
+	 * cards.
+	 */
+	private static int calculatePoints(int card0, int card1, int card2, int card3, 
+			int cutCard, boolean isCrib) {
+		
+		return scoreNobs(card0, card1, card2, card3, cutCard)
+				+ scoreFlush(card0, card1, card2, card3, cutCard, isCrib)
+				+ scoreRanks(rankOf(card0), rankOf(card1), rankOf(card2), 
+						rankOf(card3), rankOf(cutCard));
+	}
+	
+	/**
+	 * Returns the number of points from nobs for int-encoded cards.
+	 */
+	static int scoreNobs(int card0, int card1, int card2, int card3, int cutCard) {
+		int jack = suitOf(cutCard) * Card.NAMES_PER_SUIT + JACK_RANK;
+		
+		return (card0 == jack || card1 == jack || card2 == jack || card3 == jack) ? 1 : 0;
+	}
+	
+	/**
+	 * Returns the number of points from flushes for int-encoded cards.
+	 * @param isCrib should be set to true for crib evaluation and false otherwise
+	 */
+	static int scoreFlush(int card0, int card1, int card2, int card3, int cutCard, 
+			boolean isCrib) {
+		
+		int flushSuit = suitOf(card0);
+		
+		if (suitOf(card1) != flushSuit || suitOf(card2) != flushSuit 
+				|| suitOf(card3) != flushSuit) {
+			return 0;
+		}
+		
+		//the crib needs all 5 to score on a flush
+		if (suitOf(cutCard) == flushSuit) {
+			return 5;
+		} else {
+			return isCrib ? 0 : 4;
+		}
+	}
+	
+	/**
+	 * Returns the points for fifteens, pairs and runs in 5 cards given by rank
+	 * (0 for ace through 12 for king).  These depend only on the ranks, so the
+	 * order of the cards doesn't matter.
+	 */
+	static int scoreRanks(int rank0, int rank1, int rank2, int rank3, int rank4) {
+		
+		int value0 = pointValueOfRank(rank0);
+		int value1 = pointValueOfRank(rank1);
+		int value2 = pointValueOfRank(rank2);
+		int value3 = pointValueOfRank(rank3);
+		int value4 = pointValueOfRank(rank4);
+		
+		int score = 0;
+		
+		//** fifteens: check every combination of 2 or more cards, using the 
+		//bits of subset to select the cards
+		for (int subset = 3; subset < 32; subset++) {
+			
+			//skip single cards
+			if ((subset & (subset - 1)) == 0) continue;
+			
+			int sum = 0;
+			if ((subset & 1) != 0) sum += value0;
+			if ((subset & 2) != 0) sum += value1;
+			if ((subset & 4) != 0) sum += value2;
+			if ((subset & 8) != 0) sum += value3;
+			if ((subset & 16) != 0) sum += value4;
+			
+			if (sum == 15) {
+				score += 2;
+			}
+		}
+		
+		//** pairs and runs: count the cards of each rank, 4 bits per rank
+		long rankCounts = (1L << (rank0 << 2)) + (1L << (rank1 << 2)) 
+				+ (1L << (rank2 << 2)) + (1L << (rank3 << 2)) + (1L << (rank4 << 2));
+		
+		int runLength = 0;
+		int runMultiplier = 1;
+		int scoreRuns = 0;
+		
+		for (int rank = 0; rank < Card.NAMES_PER_SUIT; rank++) {
+			
+			int count = (int) (rankCounts >>> (rank << 2)) & 0xF;
+			
+			//n cards of the same rank make n * (n-1) / 2 pairs worth 2 points each
+			score += count * (count - 1);
+			
+			if (count > 0) {
+				//extend the current run; each duplicate card multiplies the run
+				runLength++;
+				runMultiplier *= count;
+			} else {
+				//5 cards can only hold one run of 3 or more
+				if (runLength >= 3) {
+					scoreRuns = runLength * runMultiplier;
+				}
+				runLength = 0;
+				runMultiplier = 1;
+			}
+		}
+		
+		//check for a run ending with a king
+		if (runLength >= 3) {
+			scoreRuns = runLength * runMultiplier;
+		}
+		
+		return score + scoreRuns;
+	}
+	
 	/**
 	 * For testing purposes
 	 */
@@ -0,0 +1,313 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Verifies the scoring engines against each other by scoring every
+ * combination of a 4 card hand and cut card (12,994,800 in all) as both a
+ * hand and a crib.  Each combination is scored by Scoring.pointsInHand/
+ * pointsInCrib on a list of cards, by the int-encoded Scoring methods, by
+ * ScoreTable and by a brute-force reference, and any disagreement is reported.
+ *
+ * The combinations are split across cores with fork-join.  When finished, the
+ * score histogram is printed and the hand histogram is checked against the
+ * known distribution of cribbage hand scores.
+ */
+
+public final class ScoringVerifier {
+
+	//highest possible score for a hand or crib
+	private static final int MAX_SCORE = 29;
+
+	//number of combinations of 2 cards from 52; the first 2 cards of each hand
+	//are enumerated by pair index so the work can be split evenly
+	private static final int NUM_PAIRS = 52 * 51 / 2;
+
+	//pairs scored by a single task before forking stops
+	private static final int PAIRS_PER_TASK = 16;
+
+	//number of mismatch descriptions kept for reporting
+	private static final int MAX_EXAMPLES = 20;
+
+	//the known number of (4 card hand, cut card) combinations for each hand
+	//score from 0 to 29
+	private static final long[] EXPECTED_HAND_HISTOGRAM = {
+		1009008, 99792, 2813796, 505008, 2855676, 697508, 1800268, 751324,
+		1137236, 361224, 388740, 51680, 317340, 19656, 90100, 9168, 58248,
+		11196, 2708, 0, 8068, 2496, 444, 356, 3680, 0, 0, 0, 76, 4
+	};
+
+	//cards indexed by Card.getIndex(), for scoring with the List methods
+	private final Card[] cards = new Card[52];
+
+	//first and second card of each pair index
+	private final int[] pairFirst = new int[NUM_PAIRS];
+	private final int[] pairSecond = new int[NUM_PAIRS];
+
+	private ScoringVerifier() {
+
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = Card.fromIndex(i);
+		}
+
+		int pair = 0;
+		for (int first = 0; first < 52; first++) {
+			for (int second = first + 1; second < 52; second++) {
+				pairFirst[pair] = first;
+				pairSecond[pair] = second;
+				pair++;
+			}
+		}
+	}
+
+	/**
+	 * Holds the histograms and mismatches found for a range of hands.
+	 */
+	private static final class Result {
+		final long[] handHistogram = new long[MAX_SCORE + 1];
+		final long[] cribHistogram = new long[MAX_SCORE + 1];
+		long combinations = 0;
+		long mismatches = 0;
+		final List<String> examples = new ArrayList<String>();
+
+		void add(Result other) {
+			for (int score = 0; score <= MAX_SCORE; score++) {
+				handHistogram[score] += other.handHistogram[score];
+				cribHistogram[score] += other.cribHistogram[score];
+			}
+			combinations += other.combinations;
+			mismatches += other.mismatches;
+			for (String example : other.examples) {
+				if (examples.size() < MAX_EXAMPLES) examples.add(example);
+			}
+		}
+	}
+
+	/**
+	 * Scores the hands whose first 2 cards have a pair index from start up
+	 * to end, splitting the range in half until it is small.
+	 */
+	private final class VerifyTask extends RecursiveTask<Result> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+
+		VerifyTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected Result compute() {
+
+			if (end - start <= PAIRS_PER_TASK) {
+				Result result = new Result();
+				for (int pair = start; pair < end; pair++) {
+					verifyPair(pairFirst[pair], pairSecond[pair], result);
+				}
+				return result;
+			}
+
+			int middle = (start + end) >>> 1;
+			VerifyTask left = new VerifyTask(start, middle);
+			left.fork();
+			Result result = new VerifyTask(middle, end).compute();
+			result.add(left.join());
+
+			return result;
+		}
+	}
+
+	//scores every hand starting with card0 and card1 against every cut card
+	private void verifyPair(int card0, int card1, Result result) {
+
+		List<Card> hand = new ArrayList<Card>();
+
+		for (int card2 = card1 + 1; card2 < 52; card2++) {
+			for (int card3 = card2 + 1; card3 < 52; card3++) {
+
+				hand.clear();
+				hand.add(cards[card0]);
+				hand.add(cards[card1]);
+				hand.add(cards[card2]);
+				hand.add(cards[card3]);
+
+				for (int cut = 0; cut < 52; cut++) {
+					if (cut == card0 || cut == card1 || cut == card2 || cut == card3) {
+						continue;
+					}
+
+					result.combinations++;
+
+					int handScore = referencePoints(card0, card1, card2, card3, cut, false);
+					result.handHistogram[handScore]++;
+
+					check(result, "hand", handScore,
+							Scoring.pointsInHand(hand, cards[cut]),
+							Scoring.pointsInHand(card0, card1, card2, card3, cut),
+							ScoreTable.pointsInHand(card0, card1, card2, card3, cut),
+							card0, card1, card2, card3, cut);
+
+					int cribScore = referencePoints(card0, card1, card2, card3, cut, true);
+					result.cribHistogram[cribScore]++;
+
+					check(result, "crib", cribScore,
+							Scoring.pointsInCrib(hand, cards[cut]),
+							Scoring.pointsInCrib(card0, card1, card2, card3, cut),
+							ScoreTable.pointsInCrib(card0, card1, card2, card3, cut),
+							card0, card1, card2, card3, cut);
+				}
+			}
+		}
+	}
+
+	//records a mismatch if any engine disagrees with the reference score
+	private void check(Result result, String kind, int reference, int listScore,
+			int intScore, int tableScore, int card0, int card1, int card2,
+			int card3, int cut) {
+
+		if (listScore == reference && intScore == reference && tableScore == reference) {
+			return;
+		}
+
+		result.mismatches++;
+
+		if (result.examples.size() < MAX_EXAMPLES) {
+			result.examples.add(kind + " [" + cards[card0] + ", " + cards[card1]
+					+ ", " + cards[card2] + ", " + cards[card3] + "] cut "
+					+ cards[cut] + ": reference=" + reference + " list="
+					+ listScore + " int=" + intScore + " table=" + tableScore);
+		}
+	}
+
+	/**
+	 * Brute-force reference scoring, written independently of Scoring:
+	 * every combination of cards is checked for fifteens, pairs and runs.
+	 */
+	static int referencePoints(int card0, int card1, int card2, int card3, int cut,
+			boolean isCrib) {
+
+		int[] hand = {card0, card1, card2, card3, cut};
+		int[] ranks = new int[5];
+		int[] values = new int[5];
+
+		for (int i = 0; i < 5; i++) {
+			ranks[i] = hand[i] % 13;
+			values[i] = Math.min(ranks[i] + 1, 10);
+		}
+
+		int points = 0;
+
+		//fifteens
+		for (int subset = 1; subset < 32; subset++) {
+			int sum = 0;
+			for (int i = 0; i < 5; i++) {
+				if ((subset & (1 << i)) != 0) sum += values[i];
+			}
+			if (sum == 15) points += 2;
+		}
+
+		//pairs
+		for (int i = 0; i < 5; i++) {
+			for (int j = i + 1; j < 5; j++) {
+				if (ranks[i] == ranks[j]) points += 2;
+			}
+		}
+
+		//runs: count the subsets of the largest size that form a run
+		for (int size = 5; size >= 3; size--) {
+			int runs = 0;
+			for (int subset = 1; subset < 32; subset++) {
+				if (Integer.bitCount(subset) != size) continue;
+
+				int rankMask = 0;
+				for (int i = 0; i < 5; i++) {
+					if ((subset & (1 << i)) != 0) rankMask |= 1 << ranks[i];
+				}
+
+				//a run has distinct, consecutive ranks
+				int shifted = rankMask >>> Integer.numberOfTrailingZeros(rankMask);
+				if (Integer.bitCount(rankMask) == size && shifted == (1 << size) - 1) {
+					runs++;
+				}
+			}
+			if (runs > 0) {
+				points += runs * size;
+				break;
+			}
+		}
+
+		//flush
+		int suit = card0 / 13;
+		if (card1 / 13 == suit && card2 / 13 == suit && card3 / 13 == suit) {
+			if (cut / 13 == suit) {
+				points += 5;
+			} else if (!isCrib) {
+				points += 4;
+			}
+		}
+
+		//nobs
+		for (int i = 0; i < 4; i++) {
+			if (ranks[i] == Card.Name.JACK.ordinal() && hand[i] / 13 == cut / 13) {
+				points += 1;
+			}
+		}
+
+		return points;
+	}
+
+	private Result run() {
+		return ForkJoinPool.commonPool().invoke(new VerifyTask(0, NUM_PAIRS));
+	}
+
+	public static void main(String[] args) {
+
+		long startTime = System.nanoTime();
+
+		Result result = new ScoringVerifier().run();
+
+		long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+		System.out.println("Score       Hands       Cribs");
+		for (int score = 0; score <= MAX_SCORE; score++) {
+			System.out.println(String.format("%5d %11d %11d", score,
+					result.handHistogram[score], result.cribHistogram[score]));
+		}
+
+		System.out.println("Verified " + result.combinations + " hand and cut card "
+				+ "combinations as hand and crib in " + elapsedMillis + " ms using "
+				+ ForkJoinPool.commonPool().getParallelism() + " threads.");
+
+		boolean passed = true;
+
+		for (int score = 0; score <= MAX_SCORE; score++) {
+			if (result.handHistogram[score] != EXPECTED_HAND_HISTOGRAM[score]) {
+				System.out.println("Hand histogram differs from known distribution "
+						+ "for score " + score + ": expected "
+						+ EXPECTED_HAND_HISTOGRAM[score] + " but was "
+						+ result.handHistogram[score]);
+				passed = false;
+			}
+		}
+
+		if (result.mismatches > 0) {
+			System.out.println(result.mismatches + " mismatches, including:");
+			for (String example : result.examples) {
+				System.out.println("  " + example);
+			}
+			passed = false;
+		}
+
+		System.out.println(passed ? "PASSED" : "FAILED");
+
+		if (!passed) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Times the phases of starting the application and logs each one as it ends,
+ * with how long it took and when it ended, counted from when the timer was
+ * created.  Phases may overlap, such as images decoding in the background
+ * while the window is shown.
+ *
+ * The time to the first frame is logged on its own: it's the time until the
+ * user sees the window, and the number to keep down.
+ */
+
+final class StartupTimer {
+
+	private final long startTime = System.nanoTime();
+
+	/**
+	 * Returns the current time, for passing to phaseDone() once a phase ends.
+	 */
+	long now() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Logs that a phase, begun at beginTime (from now()), has just ended.
+	 */
+	void phaseDone(String phase, long beginTime) {
+
+		long endTime = System.nanoTime();
+
+		System.out.println(String.format("Startup: %-14s %7.1f ms, done at %7.1f ms",
+				phase, millis(endTime - beginTime), millis(endTime - startTime)));
+	}
+
+	/**
+	 * Logs the time to the first frame once the stage has been shown and its
+	 * first frame rendered, then runs afterFirstFrame.  Must be called on the
+	 * JavaFX application thread, before the first frame.
+	 */
+	void timeFirstFrame(String mode, Runnable afterFirstFrame) {
+
+		new AnimationTimer() {
+
+			private int pulses = 0;
+
+			@Override
+			public void handle(long now) {
+
+				//the first pulse renders the first frame, so by the second
+				//it's been shown
+				if (++pulses < 2) return;
+
+				stop();
+				long timeToFirstFrame = System.nanoTime() - startTime;
+
+				System.out.println(String.format(
+						"Startup: time to first frame %.1f ms (%s), %d ms since the JVM started",
+						millis(timeToFirstFrame), mode,
+						ManagementFactory.getRuntimeMXBean().getUptime()));
+
+				afterFirstFrame.run();
+			}
+		}.start();
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+}
@@ -0,0 +1,94 @@
+package application;
+
+/**
+ * Takes the player's seat in a game of Cribbage, making the player's moves
+ * with discard and pegging strategies instead of a person.
+ *
+ * Each move is fed to Cribbage as the same UserInput a person would give, so
+ * the game runs through the same state machine as with the display.  The
+ * strategies search on the calling thread with no time limit.
+ */
+
+final class StrategyPlayer {
+
+	private final Cribbage cribbage;
+	private final DiscardStrategy playerDiscard;
+	private final PeggingStrategy playerPegging;
+
+	//int encoding of the player's dealt cards, for choosing its discards
+	private final int[] playerCards = new int[DiscardOptimizer.NUM_DEALT];
+
+	/**
+	 * Creates a player for a game.
+	 *
+	 * @param cribbage the game to play
+	 * @param playerDiscard chooses the player's discards
+	 * @param playerPegging chooses the player's pegging cards
+	 */
+	StrategyPlayer(Cribbage cribbage, DiscardStrategy playerDiscard,
+			PeggingStrategy playerPegging) {
+
+		this.cribbage = cribbage;
+		this.playerDiscard = playerDiscard;
+		this.playerPegging = playerPegging;
+	}
+
+	/**
+	 * Makes the player's next move for the game's current state: discarding,
+	 * pegging a card, or pushing the next round button otherwise.  A move
+	 * made while the computer is still thinking would be ignored, so nothing
+	 * is done then.
+	 *
+	 * @return false if nothing was done because the computer is thinking
+	 */
+	boolean move() {
+
+		if (cribbage.isComputerThinking()) return false;
+
+		switch (cribbage.getGameState()) {
+
+			case PLAYER_DISCARD:
+				discard();
+				break;
+
+			case PEGGING:
+				peg();
+				break;
+
+			default:
+				cribbage.handleUserInput(UserInput.getInstanceButtonAction());
+		}
+
+		return true;
+	}
+
+	//clicks on the 2 cards chosen by the player's discard strategy
+	private void discard() {
+
+		Hand hand = cribbage.getPlayerHand();
+		for (int i = 0; i < playerCards.length; i++) {
+			playerCards[i] = hand.peekAtCard(i).getIndex();
+		}
+
+		int discardMask = playerDiscard.selectDiscard(playerCards,
+				cribbage.isPlayerDealer(), Long.MAX_VALUE).getChoice();
+
+		//click from the highest index down so lower indexes stay valid
+		for (int i = playerCards.length - 1; i >= 0; i--) {
+			if ((discardMask & (1 << i)) != 0) {
+				cribbage.handleUserInput(UserInput.getInstanceCardClick(i));
+			}
+		}
+	}
+
+	//clicks on the card chosen by the player's pegging strategy
+	private void peg() {
+
+		Decision decision = playerPegging.selectCard(cribbage.getPlayerHand(),
+				cribbage.getPeggingCards(), cribbage.getPlayerSeenCards(),
+				cribbage.getComputerHand().size(), !cribbage.isPlayerPeggedLast(),
+				Long.MAX_VALUE);
+
+		cribbage.handleUserInput(UserInput.getInstanceCardClick(decision.getChoice()));
+	}
+}
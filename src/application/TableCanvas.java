@@ -0,0 +1,182 @@
+package application;
+
+import java.util.List;
+
+import application.Cribbage.GameState;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Draws a whole table onto a single Canvas: the computer's hand, the cut
+ * card, crib and pegging cards, the player's hand and the scores.
+ *
+ * Where MainController shows a table with some 30 nodes, a TableCanvas is one
+ * node, with every card drawn from the one atlas image, so a window can show
+ * dozens of tables.  The canvas redraws once per pulse whenever its game's
+ * model changes.
+ */
+
+final class TableCanvas extends Canvas {
+
+	//height of a card relative to its width, as in the atlas
+	static final double CARD_ASPECT = 116.0 / 80.0;
+
+	//overlap of the crib and pegging cards, as a fraction of the card width
+	private static final double OVERLAP_STEP = 1.0 / 3.0;
+
+	private static final Color BACKGROUND = Color.rgb(0, 0, 0);
+	private static final Color TABLE = Color.rgb(66, 72, 23);
+	private static final Color TEXT = Color.rgb(230, 230, 230);
+
+	private final GameModel gameModel;
+
+	//the cards are drawn from the atlas, or if there's none from the images
+	private final CardAtlas cardAtlas;
+	private final CardImages cardImages;
+
+	//size of a card and the gap around cards
+	private final double cardWidth;
+	private final double cardHeight;
+	private final double gap;
+
+	private final Font font;
+
+	//whether a redraw has been requested and not yet made
+	private boolean redrawPending = false;
+
+	/**
+	 * Creates a canvas showing a game, sized to fit cards of a given width.
+	 *
+	 * @param cardAtlas atlas to draw the cards from, or null to draw them from
+	 *        cardImages
+	 * @param cardImages images to draw the cards from if there's no atlas
+	 */
+	TableCanvas(GameModel gameModel, CardAtlas cardAtlas, CardImages cardImages,
+			double cardWidth) {
+
+		this.gameModel = gameModel;
+		this.cardAtlas = cardAtlas;
+		this.cardImages = cardImages;
+		this.cardWidth = cardWidth;
+		this.cardHeight = cardWidth * CARD_ASPECT;
+		this.gap = cardWidth / 8;
+		this.font = Font.font(cardWidth / 3.5);
+
+		//6 cards across; 3 rows of cards and a line of scores down
+		setWidth(7 * gap + 6 * cardWidth);
+		setHeight(5 * gap + 3 * cardHeight + font.getSize() * 1.5);
+
+		gameModel.addInvalidationListener(observable -> requestRedraw());
+
+		//draw the cards once the atlas has been decoded
+		if (cardAtlas != null && cardAtlas.getImage().getProgress() < 1) {
+			cardAtlas.getImage().progressProperty().addListener(
+					(observable, oldValue, newValue) -> {
+						if (newValue.doubleValue() >= 1) requestRedraw();
+					});
+		}
+
+		redraw();
+	}
+
+	//redraws once, after the model has finished changing
+	private void requestRedraw() {
+
+		if (!redrawPending) {
+			redrawPending = true;
+			Platform.runLater(() -> {
+				redrawPending = false;
+				redraw();
+			});
+		}
+	}
+
+	/**
+	 * Draws the table as the model has it now.
+	 */
+	void redraw() {
+
+		GraphicsContext graphics = getGraphicsContext2D();
+
+		graphics.setFill(BACKGROUND);
+		graphics.fillRect(0, 0, getWidth(), getHeight());
+		graphics.setFill(TABLE);
+		graphics.fillRoundRect(gap / 2, gap / 2, getWidth() - gap, getHeight() - gap,
+				2 * gap, 2 * gap);
+
+		double step = cardWidth + gap;
+		double overlapStep = cardWidth * OVERLAP_STEP;
+
+		//computer's hand
+		double y = gap;
+		drawCards(graphics, gameModel.getComputerHand(),
+				gameModel.computerHandFaceUpProperty().get(), gap, y, step);
+
+		//cut card, crib and pegging cards
+		y += cardHeight + gap;
+		Card cutCard = gameModel.cutCardProperty().get();
+		if (cutCard != null) {
+			drawCard(graphics, cutCard, true, gap, y);
+		}
+
+		double cribX = gap + step;
+		drawCards(graphics, gameModel.getCrib(), gameModel.cribFaceUpProperty().get(),
+				cribX, y, overlapStep);
+
+		double peggingX = cribX + cardWidth + 3 * overlapStep + 2 * gap;
+		drawCards(graphics, gameModel.getPeggingCards(), true, peggingX, y, overlapStep);
+
+		//player's hand
+		y += cardHeight + gap;
+		drawCards(graphics, gameModel.getPlayerHand(),
+				gameModel.playerHandFaceUpProperty().get(), gap, y, step);
+
+		//scores and count
+		y += cardHeight + gap + font.getSize();
+		boolean playerDealer = gameModel.playerDealerProperty().get();
+
+		graphics.setFill(TEXT);
+		graphics.setFont(font);
+		graphics.fillText("C " + gameModel.computerScoreProperty().get()
+				+ (playerDealer ? "" : "*")
+				+ "  P " + gameModel.playerScoreProperty().get()
+				+ (playerDealer ? "*" : "")
+				+ "  Count " + gameModel.peggingScoreProperty().get()
+				+ (gameModel.gameStateProperty().get() == GameState.GAME_OVER
+						? "  Game over" : ""), gap, y);
+	}
+
+	//draws cards in a row from x, step apart
+	private void drawCards(GraphicsContext graphics, List<Card> cards, boolean faceUp,
+			double x, double y, double step) {
+
+		for (int i = 0; i < cards.size(); i++) {
+			drawCard(graphics, cards.get(i), faceUp, x + i * step, y);
+		}
+	}
+
+	//draws a card at x, y, keeping the proportions of its image
+	private void drawCard(GraphicsContext graphics, Card card, boolean faceUp,
+			double x, double y) {
+
+		if (cardAtlas != null) {
+			Rectangle2D source = cardAtlas.get(card, faceUp);
+			graphics.drawImage(cardAtlas.getImage(), source.getMinX(), source.getMinY(),
+					source.getWidth(), source.getHeight(), x, y, cardWidth,
+					cardWidth * source.getHeight() / source.getWidth());
+		} else {
+			Image image = cardImages.get(card, faceUp);
+
+			//not decoded yet; drawn on a later redraw
+			if (image.getWidth() == 0) return;
+
+			graphics.drawImage(image, x, y, cardWidth,
+					cardWidth * image.getHeight() / image.getWidth());
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class includes static methods for mapping precomputed tables read-only into
+ * memory.  A mapped table is read straight from the page cache, so it costs
+ * no deserialization at startup and is shared by every process on the machine
+ * using the same file.
+ *
+ * The tables are the files written by CribTableGenerator, in its format: a
+ * 12 byte header of MAGIC, VERSION and the number of entries, then the
+ * big-endian floats, which start aligned.  The hand rank scores in ScoreTable
+ * take about 6 KB and are built in a moment, so they aren't stored.
+ */
+
+public final class TableStore {
+
+	//size of CribTableGenerator's header: 3 ints
+	static final int HEADER_SIZE = 12;
+
+	//file name of the crib expectations within a table directory
+	static final String CRIB_EXPECTATIONS_FILE = "crib_ev.bin";
+
+	//default table directory, relative to the working directory, holding
+	//CribTableGenerator.DEFAULT_FILE
+	public static final String DEFAULT_DIRECTORY = "tables";
+
+	//private constructor so class can't be instantiated
+	private TableStore() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Maps whichever tables exist in directory and has CribExpectation use
+	 * them.  Tables that don't exist are computed as needed, as usual.
+	 */
+	public static void mapTables(File directory) throws IOException {
+
+		File cribExpectations = new File(directory, CRIB_EXPECTATIONS_FILE);
+		if (cribExpectations.exists()) {
+			CribExpectation.setTable(map(cribExpectations, 4,
+					CribExpectation.SIZE).asFloatBuffer());
+		}
+	}
+
+	/**
+	 * Maps a table read-only and returns a buffer holding just its entries.
+	 *
+	 * @throws IOException if the file can't be read or its header doesn't
+	 *         match the expected table
+	 */
+	static ByteBuffer map(File file, int entrySize, int numEntries) throws IOException {
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+				FileChannel channel = randomAccessFile.getChannel()) {
+
+			long expectedSize = HEADER_SIZE + (long) entrySize * numEntries;
+			if (channel.size() != expectedSize) {
+				throw new IOException(file + " is " + channel.size()
+						+ " bytes but " + expectedSize + " were expected");
+			}
+
+			//the mapping remains valid after the channel is closed
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+			buffer.order(ByteOrder.BIG_ENDIAN);
+
+			if (buffer.getInt(0) != CribTableGenerator.MAGIC
+					|| buffer.getInt(4) != CribTableGenerator.VERSION) {
+				throw new IOException(file + " is not a version "
+						+ CribTableGenerator.VERSION + " table");
+			}
+			if (buffer.getInt(8) != numEntries) {
+				throw new IOException(file + " has " + buffer.getInt(8)
+						+ " entries but " + numEntries + " were expected");
+			}
+
+			buffer.position(HEADER_SIZE);
+			return buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.TilePane;
+import javafx.stage.Stage;
+
+/**
+ * Shows a grid of computer against computer games, all running at once, for
+ * monitoring.  The player's seat in each game is taken by strategies.
+ *
+ * Each table is drawn on a single TableCanvas by default.  With --nodes each
+ * is shown by a MainController instead, scaled down, to compare the frame
+ * times of the two, which are logged every few seconds.  Every table's
+ * computer searches on one shared pool of threads, a thread per core, with
+ * its own small pegging search.
+ *
+ * Usage: TableWall [tables] [--nodes]
+ */
+
+public final class TableWall extends Application {
+
+	//default number of tables shown
+	private static final int DEFAULT_TABLES = 24;
+
+	//command line option to show tables with MainController instead of canvases
+	private static final String NODES_OPTION = "--nodes";
+
+	//width of the cards on a canvas table, and of the card views in Main.fxml
+	private static final double CARD_WIDTH = 32;
+	private static final double NODE_CARD_WIDTH = 80;
+
+	//time between moves of the player at each table
+	private static final long MOVE_NANOS = 250_000_000L;
+
+	//Monte Carlo iterations per computer pegging decision, at most, and the
+	//tree nodes to hold them
+	private static final int PEGGING_ITERATIONS = 2000;
+	private static final int PEGGING_NODES = 2048;
+
+	//the player at each table, and when each next moves
+	private final List<StrategyPlayer> players = new ArrayList<StrategyPlayer>();
+	private long[] nextMoves;
+
+	@Override
+	public void start(Stage primaryStage) {
+
+		int numTables = DEFAULT_TABLES;
+		boolean nodes = false;
+		for (String arg : getParameters().getRaw()) {
+			if (arg.equals(NODES_OPTION)) {
+				nodes = true;
+			} else {
+				numTables = parseTables(arg);
+			}
+		}
+
+		if (numTables < 1) {
+			System.err.println("Number of tables must be a whole number of at least 1: "
+					+ "TableWall [tables] [" + NODES_OPTION + "]");
+			Platform.exit();
+			return;
+		}
+
+		//every table's computer searches on one pool, a thread per core
+		DecisionRunner decisionRunner = new DecisionRunner(
+				DecisionRunner.newSearchPool(Runtime.getRuntime().availableProcessors()),
+				Platform::runLater, DecisionRunner.DEFAULT_BUDGET_MILLIS);
+
+		CardAtlas cardAtlas = nodes ? null : CardAtlas.load(true);
+		CardImages cardImages = CardImages.atSize(CARD_WIDTH, CARD_WIDTH * TableCanvas.CARD_ASPECT);
+
+		TilePane tiles = new TilePane();
+		tiles.setPrefColumns((int) Math.ceil(Math.sqrt(numTables * 1.5)));
+
+		List<Cribbage> games = new ArrayList<Cribbage>();
+
+		for (int i = 0; i < numTables; i++) {
+
+			//each pegging search runs on the pool thread making the decision
+			PeggingMonteCarlo computerPegging = new PeggingMonteCarlo(1,
+					PEGGING_ITERATIONS, ForkJoinPool.commonPool(), new SplittableRandom(),
+					PEGGING_NODES);
+
+			GameModel gameModel = new GameModel();
+			Cribbage cribbage = new Cribbage(gameModel, decisionRunner,
+					DiscardOptimizer::bestDiscard, computerPegging);
+			gameModel.setCribbage(cribbage);
+
+			players.add(new StrategyPlayer(cribbage, DiscardOptimizer::bestDiscard,
+					new FirstPlayablePegging()));
+			games.add(cribbage);
+
+			tiles.getChildren().add(nodes ? controllerTable(cribbage, gameModel)
+					: new TableCanvas(gameModel, cardAtlas, cardImages, CARD_WIDTH));
+		}
+
+		Scene scene = new Scene(new ScrollPane(tiles));
+		if (nodes) {
+			scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+		}
+		primaryStage.setTitle("CribbageFX - " + numTables + " tables");
+		primaryStage.setScene(scene);
+		primaryStage.show();
+
+		for (Cribbage cribbage : games) {
+			cribbage.start();
+		}
+
+		//stagger the tables' moves so they don't all land on the same pulse
+		long now = System.nanoTime();
+		nextMoves = new long[numTables];
+		for (int i = 0; i < numTables; i++) {
+			nextMoves[i] = now + MOVE_NANOS * i / numTables;
+		}
+
+		new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				moveDuePlayers(now);
+			}
+		}.start();
+
+		new FrameTimer((nodes ? "nodes" : "canvas") + ", " + numTables + " tables").start();
+	}
+
+	//returns the number of tables given, or 0 if it isn't a number
+	private static int parseTables(String value) {
+
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	//makes a move at each table whose player is due to move
+	private void moveDuePlayers(long now) {
+
+		for (int i = 0; i < players.size(); i++) {
+			if (now >= nextMoves[i]) {
+				players.get(i).move();
+				nextMoves[i] += MOVE_NANOS;
+				if (nextMoves[i] < now) nextMoves[i] = now + MOVE_NANOS;
+			}
+		}
+	}
+
+	//returns a table shown by a MainController, scaled to the size of a
+	//canvas table
+	private static Node controllerTable(Cribbage cribbage, GameModel gameModel) {
+
+		MainController mainController = new MainController();
+		mainController.loadCardImages(true);
+		mainController.setCribbage(cribbage);
+		mainController.setGameModel(gameModel);
+
+		double scale = CARD_WIDTH / NODE_CARD_WIDTH;
+		mainController.setScaleX(scale);
+		mainController.setScaleY(scale);
+
+		return new Group(mainController);
+	}
+
+	public static void main(String[] args) {
+		launch(args);
+	}
+}
@@ -0,0 +1,272 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import application.GameListener.ScoreCategory;
+
+/**
+ * Plays complete headless games to 121 points between 2 contestants, each a
+ * discard strategy plus a pegging strategy, to compare them offline.
+ *
+ * Games are split across one worker per core.  Each worker has its own
+ * HeadlessGame engines and strategy instances and keeps its own totals, which
+ * are added together when all workers finish, so workers share no mutable
+ * state.  Contestants swap seats every game, and the first dealer is set
+ * from the game index, so that over every 4 games each contestant sits in
+ * each seat twice and deals first twice, whoever won the game before.
+ *
+ * Game i of a run with a given seed is always dealt from Deck.gameRandom(seed,
+ * i), and each worker's strategies get generators split from one derived from
+ * the seed, so a run can be repeated exactly with the same seed and number of
+ * workers, and the cards of any game can be dealt again.
+ *
+ * Usage: Tournament [games] [contestant A] [contestant B] [seed], where a contestant
+ * is discard/pegging: discard is "ev" (DiscardOptimizer) or "first" (the 2
+ * lowest cards, as hands are kept sorted), and pegging is "first" (FirstPlayablePegging), "search"
+ * (PeggingSearch) or "montecarlo" (PeggingMonteCarlo), optionally followed by
+ * ":samples" or ":iterations".
+ */
+
+public final class Tournament {
+
+	//defaults for main()
+	private static final int DEFAULT_GAMES = 10000;
+	private static final String DEFAULT_CONTESTANT_A = "ev/montecarlo:500";
+	private static final String DEFAULT_CONTESTANT_B = "ev/first";
+
+	//number of score categories tallied
+	private static final int NUM_CATEGORIES = ScoreCategory.values().length;
+
+	/**
+	 * A discard strategy and pegging strategy.  Strategies are created per
+	 * worker from a generator, since they aren't thread safe.
+	 */
+	static final class Contestant {
+		final String name;
+		final Function<SplittableRandom, DiscardStrategy> discard;
+		final Function<SplittableRandom, PeggingStrategy> pegging;
+
+		Contestant(String name, Function<SplittableRandom, DiscardStrategy> discard,
+				Function<SplittableRandom, PeggingStrategy> pegging) {
+			this.name = name;
+			this.discard = discard;
+			this.pegging = pegging;
+		}
+	}
+
+	/**
+	 * Holds the totals for a number of games, indexed by [0 for contestant A,
+	 * 1 for contestant B].
+	 */
+	private static final class Result {
+		long games = 0;
+		final long[] wins = new long[2];
+		final long[] deals = new long[2];
+		final long[][] points = new long[2][NUM_CATEGORIES];
+		final long[][] scorings = new long[2][NUM_CATEGORIES];
+
+		void add(Result other) {
+			games += other.games;
+			for (int contestant = 0; contestant < 2; contestant++) {
+				wins[contestant] += other.wins[contestant];
+				deals[contestant] += other.deals[contestant];
+				for (int category = 0; category < NUM_CATEGORIES; category++) {
+					points[contestant][category] += other.points[contestant][category];
+					scorings[contestant][category] += other.scorings[contestant][category];
+				}
+			}
+		}
+
+		//returns the mean points per scoring in a category
+		double meanPoints(int contestant, ScoreCategory category) {
+			long count = scorings[contestant][category.ordinal()];
+			return count == 0 ? 0 : (double) points[contestant][category.ordinal()] / count;
+		}
+
+		//returns the mean pegging points, including last cards, per hand dealt
+		double meanPeggingPoints(int contestant) {
+			long pegging = points[contestant][ScoreCategory.PEGGING.ordinal()]
+					+ points[contestant][ScoreCategory.LAST_CARD.ordinal()];
+			return deals[contestant] == 0 ? 0 : (double) pegging / deals[contestant];
+		}
+	}
+
+	//private constructor so class can't be instantiated
+	private Tournament() {
+		throw new RuntimeException("Should NOT instantiate this class.");
+	};
+
+	/**
+	 * Plays the games from firstGame up to endGame on one worker, alternating
+	 * which contestant takes the player's seat.
+	 */
+	private static Result playGames(Contestant a, Contestant b, long seed,
+			long firstGame, long endGame) {
+
+		//generator for this worker's strategies; game indexes are never
+		//negative, so this never matches a game's generator
+		SplittableRandom random = Deck.gameRandom(seed, -1 - firstGame);
+
+		//aAsPlayer has contestant A in the player's seat, bAsPlayer has B
+		HeadlessGame aAsPlayer = new HeadlessGame(a.discard.apply(random.split()),
+				a.pegging.apply(random.split()), b.discard.apply(random.split()),
+				b.pegging.apply(random.split()), Cribbage.FULL_GAME_SCORE);
+		HeadlessGame bAsPlayer = new HeadlessGame(b.discard.apply(random.split()),
+				b.pegging.apply(random.split()), a.discard.apply(random.split()),
+				a.pegging.apply(random.split()), Cribbage.FULL_GAME_SCORE);
+
+		Result result = new Result();
+
+		for (long i = firstGame; i < endGame; i++) {
+			boolean aIsPlayer = i % 2 == 0;
+			HeadlessGame game = aIsPlayer ? aAsPlayer : bAsPlayer;
+
+			//A deals first in games 0 and 3 of every 4, B in games 1 and 2
+			boolean playerDealsFirst = i / 2 % 2 == 0;
+
+			boolean playerWon = game.play(Deck.gameRandom(seed, i), playerDealsFirst);
+			result.games++;
+			result.wins[playerWon == aIsPlayer ? 0 : 1]++;
+
+			//contestant 0 (A) sat in the player's seat if aIsPlayer
+			for (int contestant = 0; contestant < 2; contestant++) {
+				boolean player = (contestant == 0) == aIsPlayer;
+				result.deals[contestant] += game.getDeals();
+
+				for (ScoreCategory category : ScoreCategory.values()) {
+					result.points[contestant][category.ordinal()] +=
+							game.getPoints(player, category);
+					result.scorings[contestant][category.ordinal()] +=
+							game.getScorings(player, category);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Plays games between 2 contestants split across a number of workers.
+	 */
+	private static Result run(Contestant a, Contestant b, long numGames, long seed,
+			int numWorkers) {
+
+		List<Callable<Result>> tasks = new ArrayList<Callable<Result>>();
+		long firstGame = 0;
+		for (int worker = 0; worker < numWorkers; worker++) {
+			long games = numGames / numWorkers + (worker < numGames % numWorkers ? 1 : 0);
+			long start = firstGame;
+			long end = firstGame + games;
+			tasks.add(() -> playGames(a, b, seed, start, end));
+			firstGame = end;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
+		Result result = new Result();
+
+		try {
+			for (Future<Result> future : executor.invokeAll(tasks)) {
+				result.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the contestant described by discard/pegging, as in the usage
+	 * above.
+	 */
+	static Contestant contestant(String description) {
+
+		String[] parts = description.split("/");
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Expected discard/pegging but was "
+					+ description);
+		}
+
+		Function<SplittableRandom, DiscardStrategy> discard;
+		switch (parts[0]) {
+			case "ev":
+				discard = random -> DiscardOptimizer::bestDiscard;
+				break;
+			case "first":
+				discard = random -> (cards, isDealer, deadline) -> new Decision(0x3, 1, true);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown discard strategy " + parts[0]);
+		}
+
+		String[] pegging = parts[1].split(":");
+		boolean hasCount = pegging.length > 1;
+		int count = hasCount ? Integer.parseInt(pegging[1]) : 0;
+
+		Function<SplittableRandom, PeggingStrategy> peggingStrategy;
+		switch (pegging[0]) {
+			case "first":
+				peggingStrategy = random -> new FirstPlayablePegging();
+				break;
+			case "search":
+				int samples = hasCount ? count : PeggingSearch.DEFAULT_SAMPLES;
+				peggingStrategy = random -> new PeggingSearch(samples,
+						PeggingSearch.DEFAULT_TABLE_BITS, random);
+				break;
+			case "montecarlo":
+				//games already run in parallel, so each search uses one worker
+				int iterations = hasCount ? count : PeggingMonteCarlo.DEFAULT_ITERATIONS;
+				peggingStrategy = random -> new PeggingMonteCarlo(1, iterations,
+						ForkJoinPool.commonPool(), random);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown pegging strategy " + pegging[0]);
+		}
+
+		return new Contestant(description, discard, peggingStrategy);
+	}
+
+	public static void main(String[] args) {
+
+		long numGames = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+		Contestant a = contestant(args.length > 1 ? args[1] : DEFAULT_CONTESTANT_A);
+		Contestant b = contestant(args.length > 2 ? args[2] : DEFAULT_CONTESTANT_B);
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+		int numWorkers = Runtime.getRuntime().availableProcessors();
+
+		long startTime = System.nanoTime();
+
+		Result result = run(a, b, numGames, seed, numWorkers);
+
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+
+		System.out.println("Played " + result.games + " games to "
+				+ Cribbage.FULL_GAME_SCORE + " points in " + String.format("%.2f", seconds)
+				+ " s (" + String.format("%.0f", result.games / seconds)
+				+ " games/s) using " + numWorkers + " threads and seed " + seed + ".");
+		System.out.println();
+		System.out.println(String.format("%-22s %18s %18s", "", "A", "B"));
+		System.out.println(String.format("%-22s %18s %18s", "Contestant", a.name, b.name));
+		System.out.println(String.format("%-22s %17.2f%% %17.2f%%", "Win rate",
+				100.0 * result.wins[0] / result.games, 100.0 * result.wins[1] / result.games));
+		System.out.println(String.format("%-22s %18.3f %18.3f", "Mean points per hand",
+				result.meanPoints(0, ScoreCategory.HAND), result.meanPoints(1, ScoreCategory.HAND)));
+		System.out.println(String.format("%-22s %18.3f %18.3f", "Mean points per crib",
+				result.meanPoints(0, ScoreCategory.CRIB), result.meanPoints(1, ScoreCategory.CRIB)));
+		System.out.println(String.format("%-22s %18.3f %18.3f", "Mean pegging per deal",
+				result.meanPeggingPoints(0), result.meanPeggingPoints(1)));
+	}
+}
@@ -0,0 +1,91 @@
+package application;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, open-addressing hash table from non-zero long keys to int
+ * values, used to memoize search results.  When the probed slots are all in
+ * use, the first is overwritten, so the table never grows or allocates after
+ * construction.  Not thread safe.
+ */
+
+final class TranspositionTable {
+
+	//returned by get() for keys not in the table
+	static final int MISSING = Integer.MIN_VALUE;
+
+	//number of slots checked for a key before giving up
+	private static final int MAX_PROBES = 4;
+
+	private final long[] keys;
+	private final int[] values;
+	private final int mask;
+	private final int shift;
+
+	/**
+	 * Creates a table with 2^bits slots.
+	 */
+	TranspositionTable(int bits) {
+		keys = new long[1 << bits];
+		values = new int[1 << bits];
+		mask = (1 << bits) - 1;
+		shift = 64 - bits;
+	}
+
+	/**
+	 * Returns the value stored for key, or MISSING.
+	 */
+	int get(long key) {
+
+		int slot = slot(key);
+
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			long stored = keys[slot];
+			if (stored == key) {
+				return values[slot];
+			} else if (stored == 0) {
+				return MISSING;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		return MISSING;
+	}
+
+	/**
+	 * Stores a value for a non-zero key.
+	 */
+	void put(long key, int value) {
+
+		assert key != 0 : "Zero marks empty slots and can't be used as a key.";
+
+		int firstSlot = slot(key);
+		int slot = firstSlot;
+
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			long stored = keys[slot];
+			if (stored == key || stored == 0) {
+				keys[slot] = key;
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		//all probed slots are in use; replace the first
+		keys[firstSlot] = key;
+		values[firstSlot] = value;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	void clear() {
+		Arrays.fill(keys, 0);
+	}
+
+	//spreads the key bits with a multiplicative hash
+	private int slot(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+	}
+}